@@ -0,0 +1,49 @@
+package com.npc;
+
+public enum Action {
+    TALK,
+    FLATTERY,
+    CURSE,
+    EXCHANGE,
+    GIVE_GIFT;
+
+    private static final Action[] VALUES = values();
+
+    public static final int COUNT = VALUES.length;
+
+    public int code() {
+        return ordinal();
+    }
+
+    public static Action of(int code) {
+        return VALUES[code];
+    }
+
+    // Menu choices are 1-based: 1 = talk ... 5 = give gift
+    public static Action fromChoice(int choice) {
+        if (choice < 1 || choice > COUNT) {
+            return null;
+        }
+        return VALUES[choice - 1];
+    }
+
+    public void invoke(State state, Fairy fairy) {
+        switch (this) {
+            case TALK:
+                state.talk(fairy);
+                break;
+            case FLATTERY:
+                state.flattery(fairy);
+                break;
+            case CURSE:
+                state.curse(fairy);
+                break;
+            case EXCHANGE:
+                state.exchange(fairy);
+                break;
+            case GIVE_GIFT:
+                state.giveGift(fairy);
+                break;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.npc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Collects responses in a byte buffer and writes them to the underlying
+ * stream in large chunks. Not thread-safe; give each thread its own sink.
+ */
+public class BufferedResponseSink implements ResponseSink {
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+
+    public BufferedResponseSink(OutputStream out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+
+    public BufferedResponseSink(OutputStream out, int capacity) {
+        this.out = out;
+        this.buffer = new byte[capacity];
+    }
+
+    @Override
+    public void respond(String message) {
+        int length = message.length();
+        if (length + 1 > buffer.length - position) {
+            drain();
+        }
+        if (length + 1 > buffer.length || !isAscii(message)) {
+            write(message.getBytes(StandardCharsets.UTF_8));
+            write(new byte[] { '\n' });
+            return;
+        }
+        // Responses are plain ASCII, so copy chars straight into the buffer
+        for (int i = 0; i < length; i++) {
+            buffer[position++] = (byte) message.charAt(i);
+        }
+        buffer[position++] = '\n';
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain() {
+        if (position > 0) {
+            write(buffer, position);
+            position = 0;
+        }
+    }
+
+    private void write(byte[] bytes) {
+        drain();
+        write(bytes, bytes.length);
+    }
+
+    private void write(byte[] bytes, int length) {
+        try {
+            out.write(bytes, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isAscii(String message) {
+        for (int i = 0; i < message.length(); i++) {
+            if (message.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
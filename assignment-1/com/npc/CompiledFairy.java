@@ -0,0 +1,83 @@
+package com.npc;
+
+/**
+ * Fairy backed by a {@link TransitionTable}: the mood is a table index and
+ * every interaction is an array lookup, so no State objects are created.
+ */
+public class CompiledFairy {
+    private final TransitionTable table;
+    private ResponseSink sink;
+    private FairyMetrics metrics;
+    private long enteredAt;
+    private int mood;
+
+    public CompiledFairy() {
+        this(TransitionTable.standard());
+    }
+
+    public CompiledFairy(TransitionTable table) {
+        this(table, ResponseSink.console());
+    }
+
+    public CompiledFairy(TransitionTable table, ResponseSink sink) {
+        this.table = table;
+        this.sink = sink;
+        this.mood = TransitionTable.HAPPY;
+    }
+
+    public int getMood() {
+        return mood;
+    }
+
+    public void setMood(int mood) {
+        this.mood = mood;
+    }
+
+    public State getState() {
+        return table.state(mood);
+    }
+
+    public void setSink(ResponseSink sink) {
+        this.sink = sink;
+    }
+
+    public void setMetrics(FairyMetrics metrics) {
+        this.metrics = metrics;
+        this.enteredAt = System.nanoTime();
+    }
+
+    public void interact(Action action) {
+        int code = action.code();
+        sink.respond(table.response(mood, code));
+        int next = table.next(mood, code);
+        if (metrics != null) {
+            metrics.recordInteraction(action);
+            if (next != mood) {
+                long now = System.nanoTime();
+                metrics.recordTransition(mood, next, now - enteredAt);
+                enteredAt = now;
+            }
+        }
+        mood = next;
+    }
+
+    public void talk() {
+        interact(Action.TALK);
+    }
+
+    public void flattery() {
+        interact(Action.FLATTERY);
+    }
+
+    public void curse() {
+        interact(Action.CURSE);
+    }
+
+    public void exchange() {
+        interact(Action.EXCHANGE);
+    }
+
+    public void giveGift() {
+        interact(Action.GIVE_GIFT);
+    }
+}
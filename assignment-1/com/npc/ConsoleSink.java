@@ -0,0 +1,13 @@
+package com.npc;
+
+public final class ConsoleSink implements ResponseSink {
+    static final ConsoleSink INSTANCE = new ConsoleSink();
+
+    private ConsoleSink() {
+    }
+
+    @Override
+    public void respond(String message) {
+        System.out.println(message);
+    }
+}
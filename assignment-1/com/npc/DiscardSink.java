@@ -0,0 +1,12 @@
+package com.npc;
+
+public final class DiscardSink implements ResponseSink {
+    static final DiscardSink INSTANCE = new DiscardSink();
+
+    private DiscardSink() {
+    }
+
+    @Override
+    public void respond(String message) {
+    }
+}
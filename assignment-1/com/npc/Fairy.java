@@ -2,13 +2,30 @@ package com.npc;
 
 public class Fairy {
     private State state;
+    private ResponseSink sink;
+    private FairyMetrics metrics;
+    private long enteredAt;
 
     public Fairy() {
         // Initial state
-        this.state = new HappyState();
+        this(new HappyState());
+    }
+
+    public Fairy(State state) {
+        this(state, ResponseSink.console());
+    }
+
+    public Fairy(State state, ResponseSink sink) {
+        this.state = state;
+        this.sink = sink;
     }
 
     public void setState(State state) {
+        if (metrics != null) {
+            long now = System.nanoTime();
+            metrics.recordTransition(this.state, state, now - enteredAt);
+            enteredAt = now;
+        }
         this.state = state;
     }
 
@@ -16,23 +33,55 @@ public class Fairy {
         return state;
     }
 
+    public void setSink(ResponseSink sink) {
+        this.sink = sink;
+    }
+
+    public ResponseSink getSink() {
+        return sink;
+    }
+
+    public void setMetrics(FairyMetrics metrics) {
+        this.metrics = metrics;
+        this.enteredAt = System.nanoTime();
+    }
+
+    public void say(String message) {
+        sink.respond(message);
+    }
+
     public void talk() {
+        if (metrics != null) {
+            metrics.recordInteraction(Action.TALK);
+        }
         state.talk(this);
     }
 
     public void flattery() {
+        if (metrics != null) {
+            metrics.recordInteraction(Action.FLATTERY);
+        }
         state.flattery(this);
     }
 
     public void curse() {
+        if (metrics != null) {
+            metrics.recordInteraction(Action.CURSE);
+        }
         state.curse(this);
     }
 
     public void exchange() {
+        if (metrics != null) {
+            metrics.recordInteraction(Action.EXCHANGE);
+        }
         state.exchange(this);
     }
 
     public void giveGift() {
+        if (metrics != null) {
+            metrics.recordInteraction(Action.GIVE_GIFT);
+        }
         state.giveGift(this);
     }
 }
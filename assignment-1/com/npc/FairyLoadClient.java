@@ -0,0 +1,87 @@
+package com.npc;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for {@link FairyServer}: opens many concurrent sessions on
+ * localhost, each sending random interactions to random fairies, and reports
+ * the overall request rate.
+ *
+ * Usage: java com.npc.FairyLoadClient [port] [sessions] [requests] [fairies]
+ */
+public class FairyLoadClient {
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int fairies = args.length > 3 ? Integer.parseInt(args[3]) : 1024;
+
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        CountDownLatch done = new CountDownLatch(sessions);
+        SplittableRandom seed = new SplittableRandom();
+        ExecutorService executor = FairyServer.newThreadPerTaskExecutor();
+
+        long start = System.nanoTime();
+        for (int s = 0; s < sessions; s++) {
+            SplittableRandom random = seed.split();
+            executor.execute(() -> {
+                try {
+                    runSession(port, requests, fairies, random, completed, errors);
+                } catch (IOException e) {
+                    errors.increment();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        double seconds = elapsed / 1e9;
+        System.out.println(sessions + " sessions, " + completed.sum() + " requests in "
+                + String.format("%.3f", seconds) + " s ("
+                + String.format("%.0f", completed.sum() / seconds) + " requests/sec), "
+                + errors.sum() + " errors");
+    }
+
+    private static void runSession(int port, int requests, int fairies, SplittableRandom random,
+                                   LongAdder completed, LongAdder errors) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            for (int i = 0; i < requests; i++) {
+                out.write(random.nextInt(fairies) + " " + (1 + random.nextInt(Action.COUNT)) + "\n");
+                out.flush();
+                String reply = in.readLine();
+                if (reply == null) {
+                    errors.increment();
+                    return;
+                }
+                if (reply.startsWith("ERR")) {
+                    errors.increment();
+                } else {
+                    completed.increment();
+                }
+            }
+        }
+    }
+}
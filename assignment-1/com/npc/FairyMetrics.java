@@ -0,0 +1,190 @@
+package com.npc;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Low-overhead counters for fairy behaviour: interactions per action, mood
+ * changes per (from, to) pair and a dwell-time histogram per mood.
+ *
+ * All counters are LongAdders allocated up front, so recording from many
+ * threads does not contend and does not allocate. Dwell times are bucketed
+ * by powers of two of microseconds. The counters are published over JMX by
+ * {@link #register(String)} and as JFR events (see {@link MoodTransitionEvent}
+ * and {@link FairyMetricsEvent}) until {@link #unregister()}.
+ */
+public class FairyMetrics implements FairyMetricsMXBean {
+    public static final int DWELL_BUCKETS = 40;
+
+    private final TransitionTable table;
+    private final int moodCount;
+    private final LongAdder[] interactions;
+    private final LongAdder[] transitions;
+    private final LongAdder[] dwell;
+    private ObjectName registeredName;
+    private Runnable periodicEvent;
+
+    public FairyMetrics() {
+        this(TransitionTable.standard());
+    }
+
+    public FairyMetrics(TransitionTable table) {
+        this.table = table;
+        this.moodCount = table.stateCount();
+        this.interactions = adders(Action.COUNT);
+        this.transitions = adders(moodCount * moodCount);
+        this.dwell = adders(moodCount * DWELL_BUCKETS);
+    }
+
+    public TransitionTable getTable() {
+        return table;
+    }
+
+    public void recordInteraction(Action action) {
+        interactions[action.code()].increment();
+    }
+
+    public void recordTransition(int from, int to, long dwellNanos) {
+        if (from < 0 || to < 0) {
+            return;
+        }
+        transitions[from * moodCount + to].increment();
+        dwell[from * DWELL_BUCKETS + bucket(dwellNanos)].increment();
+        MoodTransitionEvent.emit(table, from, to, dwellNanos);
+    }
+
+    // Looks the moods up by State class; unknown moods are ignored
+    public void recordTransition(State from, State to, long dwellNanos) {
+        recordTransition(table.indexOf(from), table.indexOf(to), dwellNanos);
+    }
+
+    public long getInteractions(Action action) {
+        return interactions[action.code()].sum();
+    }
+
+    public long getTransitions(int from, int to) {
+        return transitions[from * moodCount + to].sum();
+    }
+
+    public long[] getDwellHistogram(int mood) {
+        long[] histogram = new long[DWELL_BUCKETS];
+        for (int b = 0; b < DWELL_BUCKETS; b++) {
+            histogram[b] = dwell[mood * DWELL_BUCKETS + b].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public long getTotalInteractions() {
+        long total = 0;
+        for (LongAdder adder : interactions) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalTransitions() {
+        long total = 0;
+        for (LongAdder adder : transitions) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getInteractionsByAction() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int a = 0; a < Action.COUNT; a++) {
+            result.put(Action.of(a).name(), interactions[a].sum());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getTransitionCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int from = 0; from < moodCount; from++) {
+            for (int to = 0; to < moodCount; to++) {
+                long count = getTransitions(from, to);
+                if (count > 0) {
+                    result.put(table.stateName(from) + "->" + table.stateName(to), count);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long[] getDwellHistogram(String mood) {
+        for (int m = 0; m < moodCount; m++) {
+            if (table.stateName(m).equalsIgnoreCase(mood)) {
+                return getDwellHistogram(m);
+            }
+        }
+        throw new IllegalArgumentException("Unknown mood: " + mood);
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder adder : interactions) {
+            adder.reset();
+        }
+        for (LongAdder adder : transitions) {
+            adder.reset();
+        }
+        for (LongAdder adder : dwell) {
+            adder.reset();
+        }
+    }
+
+    public synchronized void register(String name) throws JMException {
+        if (registeredName != null) {
+            throw new IllegalStateException("Metrics already registered as " + registeredName);
+        }
+        ObjectName objectName = new ObjectName("com.npc:type=FairyMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        registeredName = objectName;
+        periodicEvent = () -> {
+            FairyMetricsEvent event = new FairyMetricsEvent();
+            event.name = name;
+            event.interactions = getTotalInteractions();
+            event.transitions = getTotalTransitions();
+            event.commit();
+        };
+        FlightRecorder.addPeriodicEvent(FairyMetricsEvent.class, periodicEvent);
+    }
+
+    // Undoes register(); does nothing if the metrics are not registered
+    public synchronized void unregister() throws JMException {
+        if (registeredName == null) {
+            return;
+        }
+        FlightRecorder.removePeriodicEvent(periodicEvent);
+        periodicEvent = null;
+        ObjectName objectName = registeredName;
+        registeredName = null;
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+    static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        if (micros <= 0) {
+            return 0;
+        }
+        return Math.min(DWELL_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,24 @@
+package com.npc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+
+@Name("com.npc.FairyMetrics")
+@Label("Fairy Metrics")
+@Category("NPC")
+@Description("Periodic totals of fairy interactions and mood transitions")
+@Period("1 s")
+public class FairyMetricsEvent extends Event {
+    @Label("Name")
+    String name;
+
+    @Label("Interactions")
+    long interactions;
+
+    @Label("Transitions")
+    long transitions;
+}
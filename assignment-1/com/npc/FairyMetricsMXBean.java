@@ -0,0 +1,17 @@
+package com.npc;
+
+import java.util.Map;
+
+public interface FairyMetricsMXBean {
+    long getTotalInteractions();
+
+    long getTotalTransitions();
+
+    Map<String, Long> getInteractionsByAction();
+
+    Map<String, Long> getTransitionCounts();
+
+    long[] getDwellHistogram(String mood);
+
+    void reset();
+}
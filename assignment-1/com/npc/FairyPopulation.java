@@ -0,0 +1,101 @@
+package com.npc;
+
+/**
+ * Moods of many fairies packed into one byte per fairy.
+ *
+ * A fairy is just an index into {@code moods}; interactions are applied in
+ * bulk through per-action transition columns taken from a
+ * {@link TransitionTable}, so iterating a range touches memory sequentially
+ * and allocates nothing.
+ */
+public class FairyPopulation {
+    private final TransitionTable table;
+    private final byte[] moods;
+    private final byte[][] columns;
+
+    public FairyPopulation(int size) {
+        this(TransitionTable.standard(), size);
+    }
+
+    public FairyPopulation(TransitionTable table, int size) {
+        // Every fairy starts Happy, which is mood 0, so the new array is ready as is
+        this(table, new byte[size]);
+    }
+
+    FairyPopulation(TransitionTable table, byte[] moods) {
+        this.table = table;
+        this.moods = moods;
+        this.columns = new byte[Action.COUNT][];
+        for (int a = 0; a < Action.COUNT; a++) {
+            columns[a] = table.column(a);
+        }
+    }
+
+    public TransitionTable getTable() {
+        return table;
+    }
+
+    public int size() {
+        return moods.length;
+    }
+
+    public int getMood(int fairy) {
+        return moods[fairy] & 0xFF;
+    }
+
+    public void setMood(int fairy, int mood) {
+        moods[fairy] = (byte) mood;
+    }
+
+    public String interact(int fairy, Action action) {
+        int mood = moods[fairy] & 0xFF;
+        moods[fairy] = columns[action.code()][mood];
+        return table.response(mood, action.code());
+    }
+
+    public void apply(Action action, int from, int to) {
+        byte[] column = columns[action.code()];
+        byte[] m = moods;
+        for (int i = from; i < to; i++) {
+            m[i] = column[m[i] & 0xFF];
+        }
+    }
+
+    public void applyAll(Action action) {
+        apply(action, 0, moods.length);
+    }
+
+    public void apply(Action action, int[] fairies) {
+        apply(action, fairies, 0, fairies.length);
+    }
+
+    public void apply(Action action, int[] fairies, int offset, int length) {
+        byte[] column = columns[action.code()];
+        byte[] m = moods;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int fairy = fairies[i];
+            m[fairy] = column[m[fairy] & 0xFF];
+        }
+    }
+
+    public long[] countByMood() {
+        return countByMood(0, moods.length);
+    }
+
+    public long[] countByMood(int from, int to) {
+        long[] counts = new long[table.stateCount()];
+        byte[] m = moods;
+        for (int i = from; i < to; i++) {
+            counts[m[i] & 0xFF]++;
+        }
+        return counts;
+    }
+
+    byte[] moods() {
+        return moods;
+    }
+
+    byte[] column(int action) {
+        return columns[action];
+    }
+}
@@ -0,0 +1,83 @@
+package com.npc;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fairies shared between threads. Each fairy's mood lives in one slot of an
+ * AtomicIntegerArray and transitions are applied with compare-and-set, so
+ * players talking to different fairies never contend and players talking to
+ * the same fairy retry instead of blocking.
+ *
+ * With {@link FairyMetrics} attached, every interaction is counted and the
+ * thread whose compare-and-set changes a mood records that transition.
+ */
+public class FairyRegistry {
+    private final TransitionTable table;
+    private final AtomicIntegerArray moods;
+    private FairyMetrics metrics;
+    private AtomicLongArray enteredAt;
+
+    public FairyRegistry(int size) {
+        this(TransitionTable.standard(), size);
+    }
+
+    public FairyRegistry(TransitionTable table, int size) {
+        this.table = table;
+        // Every fairy starts Happy, which is mood 0
+        this.moods = new AtomicIntegerArray(size);
+    }
+
+    public TransitionTable getTable() {
+        return table;
+    }
+
+    // Call before the registry is shared between threads
+    public void setMetrics(FairyMetrics metrics) {
+        this.metrics = metrics;
+        if (metrics != null) {
+            enteredAt = new AtomicLongArray(moods.length());
+            long now = System.nanoTime();
+            for (int i = 0; i < enteredAt.length(); i++) {
+                enteredAt.set(i, now);
+            }
+        } else {
+            enteredAt = null;
+        }
+    }
+
+    public int size() {
+        return moods.length();
+    }
+
+    public int getMood(int fairy) {
+        return moods.get(fairy);
+    }
+
+    // Applies the action atomically and returns the mood it was applied in
+    public int interact(int fairy, Action action) {
+        int code = action.code();
+        while (true) {
+            int mood = moods.get(fairy);
+            int next = table.next(mood, code);
+            if (mood == next || moods.compareAndSet(fairy, mood, next)) {
+                if (metrics != null) {
+                    record(fairy, action, mood, next);
+                }
+                return mood;
+            }
+        }
+    }
+
+    public String respond(int fairy, Action action) {
+        return table.response(interact(fairy, action), action.code());
+    }
+
+    private void record(int fairy, Action action, int mood, int next) {
+        metrics.recordInteraction(action);
+        if (next != mood) {
+            long now = System.nanoTime();
+            metrics.recordTransition(mood, next, now - enteredAt.getAndSet(fairy, now));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.npc;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.management.JMException;
+
+/**
+ * Line-based TCP server hosting a {@link FairyRegistry} on localhost.
+ *
+ * Each request line is {@code <fairy> <choice>} with choices numbered as in
+ * the menu (1-5); the reply is the fairy's response on one line, or a line
+ * starting with {@code ERR}. Every connection is served on its own virtual
+ * thread when the runtime supports them, otherwise on a cached thread pool.
+ * When started from main(), the registry reports to a {@link FairyMetrics}
+ * registered over JMX and JFR.
+ */
+public class FairyServer implements AutoCloseable {
+    private final FairyRegistry registry;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+
+    public FairyServer(FairyRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        this.executor = newThreadPerTaskExecutor();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.out.println("Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII))) {
+            s.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                out.write(process(line));
+                out.write('\n');
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // Client went away; nothing to clean up beyond the socket
+        }
+    }
+
+    private String process(String line) {
+        int space = line.indexOf(' ');
+        if (space < 0) {
+            return "ERR expected '<fairy> <choice>'";
+        }
+        int fairy;
+        int choice;
+        try {
+            fairy = Integer.parseInt(line.substring(0, space).trim());
+            choice = Integer.parseInt(line.substring(space + 1).trim());
+        } catch (NumberFormatException e) {
+            return "ERR not a number";
+        }
+        Action action = Action.fromChoice(choice);
+        if (action == null) {
+            return "ERR choice must be 1-5";
+        }
+        if (fairy < 0 || fairy >= registry.size()) {
+            return "ERR unknown fairy " + fairy;
+        }
+        return registry.respond(fairy, action);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                            MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (Throwable e) {
+            // Virtual threads need Java 21; fall back to platform threads
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public static void main(String[] args) throws IOException, JMException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        int fairies = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        FairyRegistry registry = new FairyRegistry(fairies);
+        FairyMetrics metrics = new FairyMetrics(registry.getTable());
+        registry.setMetrics(metrics);
+        metrics.register("server-" + port);
+        try (FairyServer server = new FairyServer(registry, port)) {
+            System.out.println("Fairy server listening on localhost:" + server.getPort()
+                    + " with " + fairies + " fairies");
+            server.serve();
+        } finally {
+            metrics.unregister();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.npc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Append-only binary journal of fairy interactions.
+ *
+ * Each record is 6 bytes: int fairy id, action code and resulting mood.
+ * Records are batched in a direct buffer and written through a FileChannel.
+ * Every {@code checkpointInterval} records the current mood of every fairy
+ * is written to a checkpoint file together with the journal offset it
+ * covers, so a replay only has to read the journal tail after the latest
+ * checkpoint.
+ */
+public class InteractionJournal implements Closeable {
+    public static final String JOURNAL_FILE = "interactions.journal";
+    public static final String CHECKPOINT_FILE = "interactions.checkpoint";
+
+    private static final int RECORD_SIZE = 6;
+    private static final int CHECKPOINT_MAGIC = 0x46434B31; // "FCK1"
+    private static final int CHECKPOINT_HEADER = 16;
+    private static final int BUFFER_SIZE = RECORD_SIZE * 8192;
+
+    private final Path directory;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] moods;
+    private final long checkpointInterval;
+    private long position;
+    private long sinceCheckpoint;
+
+    public InteractionJournal(Path directory, int fairyCount, long checkpointInterval) throws IOException {
+        this.directory = directory;
+        this.checkpointInterval = checkpointInterval;
+        Files.createDirectories(directory);
+        this.moods = replay(directory, fairyCount);
+        this.channel = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        // Drop a torn record left by a crash in the middle of a write
+        long size = channel.size();
+        this.position = size - size % RECORD_SIZE;
+        channel.truncate(position);
+    }
+
+    public void record(int fairy, Action action, int resultMood) throws IOException {
+        // Checked before buffering so a bad id never reaches the journal
+        Objects.checkIndex(fairy, moods.length);
+        if (!buffer.hasRemaining()) {
+            writeBuffer();
+        }
+        buffer.putInt(fairy).put((byte) action.code()).put((byte) resultMood);
+        moods[fairy] = (byte) resultMood;
+        if (++sinceCheckpoint >= checkpointInterval) {
+            checkpoint();
+        }
+    }
+
+    // Applies the action to the population and journals the outcome
+    public String interact(FairyPopulation population, int fairy, Action action) throws IOException {
+        String response = population.interact(fairy, action);
+        record(fairy, action, population.getMood(fairy));
+        return response;
+    }
+
+    public void flush() throws IOException {
+        writeBuffer();
+    }
+
+    public void checkpoint() throws IOException {
+        writeBuffer();
+        channel.force(false);
+
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(CHECKPOINT_HEADER);
+            header.putInt(CHECKPOINT_MAGIC).putLong(position).putInt(moods.length).flip();
+            writeFully(out, header);
+            writeFully(out, ByteBuffer.wrap(moods));
+            out.force(false);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sinceCheckpoint = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeBuffer();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Rebuilds the mood of every fairy from the latest checkpoint plus the
+     * journal records written after it. Fairies never seen are Happy.
+     */
+    public static byte[] replay(Path directory, int fairyCount) throws IOException {
+        byte[] moods = new byte[fairyCount];
+        long offset = readCheckpoint(directory, moods);
+        scan(directory, offset, (fairy, mood) -> {
+            if (fairy < moods.length) {
+                moods[fairy] = (byte) mood;
+            }
+        });
+        return moods;
+    }
+
+    public static int replay(Path directory, int fairyCount, int fairy) throws IOException {
+        return replay(directory, fairyCount)[fairy] & 0xFF;
+    }
+
+    private static long readCheckpoint(Path directory, byte[] moods) throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(CHECKPOINT_HEADER);
+            readFully(in, header);
+            header.flip();
+            if (header.remaining() < CHECKPOINT_HEADER || header.getInt() != CHECKPOINT_MAGIC) {
+                return 0;
+            }
+            long offset = header.getLong();
+            int count = header.getInt();
+            ByteBuffer body = ByteBuffer.wrap(moods, 0, Math.min(count, moods.length));
+            readFully(in, body);
+            return offset;
+        }
+    }
+
+    private static void scan(Path directory, long offset, MoodConsumer consumer) throws IOException {
+        Path file = directory.resolve(JOURNAL_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long position = offset;
+            while (in.read(buffer, position) > 0) {
+                buffer.flip();
+                int records = buffer.remaining() / RECORD_SIZE;
+                if (records == 0) {
+                    break;
+                }
+                for (int i = 0; i < records; i++) {
+                    int fairy = buffer.getInt();
+                    buffer.get();
+                    consumer.accept(fairy, buffer.get() & 0xFF);
+                }
+                position += (long) records * RECORD_SIZE;
+                buffer.clear();
+            }
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && in.read(buffer) > 0) {
+            // keep reading
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private interface MoodConsumer {
+        void accept(int fairy, int mood);
+    }
+}
@@ -0,0 +1,65 @@
+package com.npc;
+
+import java.util.SplittableRandom;
+
+/**
+ * A random player: picks each action with a fixed probability, for example
+ * 70% talk, 20% gift and 10% curse.
+ */
+public class InteractionPolicy {
+    private final double[] probabilities;
+    private final double[] cumulative;
+
+    public InteractionPolicy(double... weights) {
+        if (weights.length != Action.COUNT) {
+            throw new IllegalArgumentException("Expected " + Action.COUNT + " weights, got " + weights.length);
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        probabilities = new double[Action.COUNT];
+        cumulative = new double[Action.COUNT];
+        double sum = 0;
+        for (int a = 0; a < Action.COUNT; a++) {
+            probabilities[a] = weights[a] / total;
+            sum += probabilities[a];
+            cumulative[a] = sum;
+        }
+        cumulative[Action.COUNT - 1] = 1.0;
+    }
+
+    public double probability(Action action) {
+        return probabilities[action.code()];
+    }
+
+    public int sample(SplittableRandom random) {
+        double u = random.nextDouble();
+        int a = 0;
+        while (u >= cumulative[a]) {
+            a++;
+        }
+        return a;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int a = 0; a < Action.COUNT; a++) {
+            if (probabilities[a] > 0) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(Math.round(probabilities[a] * 1000) / 10.0).append("% ")
+                  .append(Action.of(a).name().toLowerCase());
+            }
+        }
+        return sb.toString();
+    }
+}
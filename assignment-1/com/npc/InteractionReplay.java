@@ -0,0 +1,215 @@
+package com.npc;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replays a recorded interaction log against a population of fairies.
+ *
+ * Text logs hold one interaction per line, either {@code <choice>} (fairy 0)
+ * or {@code <fairy> <choice>}, with choices numbered as in the menu (1-5).
+ * Blank lines are ignored; any other line that is not one of those forms,
+ * or names an unknown fairy or choice, is counted as skipped.
+ * Binary logs are a sequence of 5-byte records: a big-endian int fairy id
+ * followed by one choice byte. The file is memory-mapped in windows and
+ * parsed straight from the mapped bytes, so no String is created per line.
+ */
+public class InteractionReplay {
+    private static final long WINDOW = 1L << 30;
+    private static final int BINARY_RECORD = 5;
+
+    private final FairyPopulation population;
+    private final ResponseSink sink;
+    private long interactions;
+    private long skipped;
+
+    public InteractionReplay(FairyPopulation population, ResponseSink sink) {
+        this.population = population;
+        this.sink = sink;
+    }
+
+    public long getInteractions() {
+        return interactions;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void replayText(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(WINDOW, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int consumed = parseText(buffer, last);
+                if (consumed == 0) {
+                    throw new IOException("Line longer than replay window at offset " + position);
+                }
+                position += consumed;
+            }
+        }
+    }
+
+    public void replayBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long window = WINDOW - WINDOW % BINARY_RECORD;
+            long position = 0;
+            while (size - position >= BINARY_RECORD) {
+                long length = Math.min(window, size - position);
+                length -= length % BINARY_RECORD;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                while (buffer.remaining() >= BINARY_RECORD) {
+                    int fairy = buffer.getInt();
+                    apply(fairy, buffer.get());
+                }
+                position += length;
+            }
+        }
+    }
+
+    // Returns the number of bytes up to the end of the last complete line
+    private int parseText(MappedByteBuffer buffer, boolean last) {
+        int limit = buffer.limit();
+        int lineStart = 0;
+        long first = -1;
+        long second = -1;
+        long value = -1;
+        boolean bad = false;
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (b - '0');
+                if (value > Integer.MAX_VALUE) {
+                    // Out of range for any fairy or choice; cap it so it cannot overflow
+                    bad = true;
+                    value = Integer.MAX_VALUE + 1L;
+                }
+            } else if (b == '\n') {
+                dispatch(first, second, value, bad);
+                first = second = value = -1;
+                bad = false;
+                lineStart = i + 1;
+            } else {
+                if (value >= 0) {
+                    if (first < 0) {
+                        first = value;
+                    } else if (second < 0) {
+                        second = value;
+                    } else {
+                        bad = true;
+                    }
+                    value = -1;
+                }
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    bad = true;
+                }
+            }
+        }
+        if (last) {
+            dispatch(first, second, value, bad);
+            return limit;
+        }
+        return lineStart;
+    }
+
+    private void dispatch(long first, long second, long value, boolean bad) {
+        if (value >= 0) {
+            if (first < 0) {
+                first = value;
+            } else if (second < 0) {
+                second = value;
+            } else {
+                bad = true;
+            }
+        }
+        if (bad) {
+            skipped++;
+            return;
+        }
+        if (first < 0) {
+            // Blank line
+            return;
+        }
+        if (second < 0) {
+            apply(0, first);
+        } else if (first < population.size()) {
+            apply((int) first, second);
+        } else {
+            skipped++;
+        }
+    }
+
+    private void apply(int fairy, long choice) {
+        if (choice < 1 || choice > Action.COUNT || fairy < 0 || fairy >= population.size()) {
+            skipped++;
+            return;
+        }
+        sink.respond(population.interact(fairy, Action.of((int) choice - 1)));
+        interactions++;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = null;
+        int fairies = 1;
+        boolean binary = false;
+        boolean echo = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--replay":
+                    break;
+                case "--fairies":
+                    fairies = Integer.parseInt(args[++i]);
+                    break;
+                case "--binary":
+                    binary = true;
+                    break;
+                case "--echo":
+                    echo = true;
+                    break;
+                default:
+                    file = Paths.get(args[i]);
+            }
+        }
+        if (file == null) {
+            System.out.println("Usage: java com.npc.Main --replay <log> [--fairies N] [--binary] [--echo]");
+            return;
+        }
+        if (file.toString().endsWith(".bin")) {
+            binary = true;
+        }
+
+        FairyPopulation population = new FairyPopulation(fairies);
+        ResponseSink sink = echo ? new BufferedResponseSink(System.out) : ResponseSink.discard();
+        InteractionReplay replay = new InteractionReplay(population, sink);
+
+        long start = System.nanoTime();
+        if (binary) {
+            replay.replayBinary(file);
+        } else {
+            replay.replayText(file);
+        }
+        sink.flush();
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        System.out.println("Replayed " + replay.getInteractions() + " interactions in "
+                + String.format("%.3f", seconds) + " s ("
+                + String.format("%.0f", replay.getInteractions() / Math.max(seconds, 1e-9))
+                + " interactions/sec)");
+        if (replay.getSkipped() > 0) {
+            System.out.println("Skipped " + replay.getSkipped() + " invalid entries");
+        }
+        long[] moods = population.countByMood();
+        for (int m = 0; m < moods.length; m++) {
+            System.out.println("  " + population.getTable().stateName(m) + ": " + moods[m]);
+        }
+    }
+}
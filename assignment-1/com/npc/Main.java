@@ -1,9 +1,15 @@
 package com.npc;
 
+import java.io.IOException;
 import java.util.Scanner;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--replay")) {
+            InteractionReplay.main(args);
+            return;
+        }
+
         Fairy fairy = new Fairy();
         Scanner scanner = new Scanner(System.in);
 
@@ -0,0 +1,53 @@
+package com.npc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records which response was produced as a small integer id instead of
+ * keeping the text. Responses are string constants, so ids are assigned by
+ * identity; {@link #message(int)} maps an id back to its text.
+ */
+public class MessageIdCollector implements ResponseSink {
+    private final Map<String, Integer> ids = new IdentityHashMap<>();
+    private final List<String> messages = new ArrayList<>();
+    private int[] recorded = new int[1024];
+    private int count;
+
+    @Override
+    public void respond(String message) {
+        Integer id = ids.get(message);
+        if (id == null) {
+            id = messages.size();
+            ids.put(message, id);
+            messages.add(message);
+        }
+        if (count == recorded.length) {
+            recorded = Arrays.copyOf(recorded, count * 2);
+        }
+        recorded[count++] = id;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int idAt(int index) {
+        return recorded[index];
+    }
+
+    public String message(int id) {
+        return messages.get(id);
+    }
+
+    public int distinctMessages() {
+        return messages.size();
+    }
+
+    public void clear() {
+        count = 0;
+    }
+}
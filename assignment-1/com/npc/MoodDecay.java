@@ -0,0 +1,97 @@
+package com.npc;
+
+/**
+ * Lets fairy moods wear off on their own, e.g. Angry becomes Sad after 30
+ * seconds and Sad becomes Happy after two minutes.
+ *
+ * Each fairy of the population has at most one pending decay deadline in a
+ * {@link TimingWheel}; changing its mood reschedules or cancels it. Callers
+ * drive time with {@link #advanceTo(long)}, which applies every expired
+ * decay in batches. A decay schedules the next one from the tick it expired
+ * at, so Angry -> Sad -> Happy completes within one long advance. Fairies
+ * already in a decaying mood when a rule is added are scheduled from the
+ * current tick.
+ */
+public class MoodDecay {
+    private final FairyPopulation population;
+    private final TimingWheel wheel;
+    private final long tickMillis;
+    private final int[] targets;
+    private final long[] delays;
+
+    public MoodDecay(FairyPopulation population, long tickMillis) {
+        this.population = population;
+        this.wheel = new TimingWheel(population.size());
+        this.tickMillis = tickMillis;
+        int moods = population.getTable().stateCount();
+        this.targets = new int[moods];
+        this.delays = new long[moods];
+        for (int m = 0; m < moods; m++) {
+            targets[m] = -1;
+        }
+    }
+
+    public static MoodDecay standard(FairyPopulation population) {
+        MoodDecay decay = new MoodDecay(population, 100);
+        decay.rule(TransitionTable.ANGRY, TransitionTable.SAD, 30_000);
+        decay.rule(TransitionTable.SAD, TransitionTable.HAPPY, 120_000);
+        return decay;
+    }
+
+    public MoodDecay rule(int mood, int target, long afterMillis) {
+        targets[mood] = target;
+        delays[mood] = Math.max(1, afterMillis / tickMillis);
+        for (int fairy = 0; fairy < population.size(); fairy++) {
+            if (population.getMood(fairy) == mood && !wheel.isScheduled(fairy)) {
+                wheel.scheduleAfter(fairy, delays[mood]);
+            }
+        }
+        return this;
+    }
+
+    public long getNowMillis() {
+        return wheel.getCurrentTick() * tickMillis;
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    // Re-arms the fairy's decay timer for its current mood
+    public void moodChanged(int fairy) {
+        rearm(fairy, wheel.getCurrentTick());
+    }
+
+    public String interact(int fairy, Action action) {
+        int before = population.getMood(fairy);
+        String response = population.interact(fairy, action);
+        if (population.getMood(fairy) != before) {
+            moodChanged(fairy);
+        }
+        return response;
+    }
+
+    public void advanceTo(long nowMillis) {
+        wheel.advanceTo(nowMillis / tickMillis, this::decay);
+    }
+
+    private void decay(int[] fairies, int count, long tick) {
+        for (int i = 0; i < count; i++) {
+            int fairy = fairies[i];
+            int target = targets[population.getMood(fairy)];
+            if (target >= 0) {
+                population.setMood(fairy, target);
+                rearm(fairy, tick);
+            }
+        }
+    }
+
+    private void rearm(int fairy, long fromTick) {
+        int mood = population.getMood(fairy);
+        if (targets[mood] < 0) {
+            wheel.cancel(fairy);
+        } else {
+            wheel.schedule(fairy, fromTick + delays[mood]);
+        }
+    }
+}
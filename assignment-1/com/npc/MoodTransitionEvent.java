@@ -0,0 +1,39 @@
+package com.npc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("com.npc.MoodTransition")
+@Label("Mood Transition")
+@Category("NPC")
+@Description("A fairy changed mood")
+public class MoodTransitionEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(MoodTransitionEvent.class);
+
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+
+    @Label("Dwell Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long dwell;
+
+    // Only allocates the event while a recording has it enabled
+    static void emit(TransitionTable table, int from, int to, long dwellNanos) {
+        if (!TYPE.isEnabled()) {
+            return;
+        }
+        MoodTransitionEvent event = new MoodTransitionEvent();
+        event.from = table.stateName(from);
+        event.to = table.stateName(to);
+        event.dwell = dwellNanos;
+        event.commit();
+    }
+}
@@ -0,0 +1,190 @@
+package com.npc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Estimates the long-run mood distribution of a fairy under a random
+ * {@link InteractionPolicy}, both by Monte Carlo simulation and exactly.
+ *
+ * The simulation splits one SplittableRandom per worker up front and runs an
+ * independent chain per worker on a parallel stream; workers share only the
+ * read-only transition table and return their own occupancy counts. The
+ * exact answer is the stationary distribution of the Markov chain that the
+ * policy induces on the transition table.
+ */
+public class PolicySimulator {
+    private final TransitionTable table;
+
+    public PolicySimulator() {
+        this(TransitionTable.standard());
+    }
+
+    public PolicySimulator(TransitionTable table) {
+        this.table = table;
+    }
+
+    // Fraction of steps spent in each mood over the given number of steps
+    public double[] simulate(InteractionPolicy policy, long steps, int workers, long seed) {
+        int moods = table.stateCount();
+        int[] next = new int[moods * Action.COUNT];
+        for (int s = 0; s < moods; s++) {
+            for (int a = 0; a < Action.COUNT; a++) {
+                next[s * Action.COUNT + a] = table.next(s, a);
+            }
+        }
+
+        SplittableRandom root = new SplittableRandom(seed);
+        List<SplittableRandom> randoms = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            randoms.add(root.split());
+        }
+
+        long[] occupancy = IntStream.range(0, workers).parallel().mapToObj(w -> {
+            long share = steps / workers + (w < steps % workers ? 1 : 0);
+            SplittableRandom random = randoms.get(w);
+            long[] counts = new long[moods];
+            int mood = TransitionTable.HAPPY;
+            for (long i = 0; i < share; i++) {
+                counts[mood]++;
+                mood = next[mood * Action.COUNT + policy.sample(random)];
+            }
+            return counts;
+        }).reduce(new long[moods], (left, right) -> {
+            long[] sum = new long[moods];
+            for (int m = 0; m < moods; m++) {
+                sum[m] = left[m] + right[m];
+            }
+            return sum;
+        });
+
+        double[] distribution = new double[moods];
+        for (int m = 0; m < moods; m++) {
+            distribution[m] = (double) occupancy[m] / steps;
+        }
+        return distribution;
+    }
+
+    /**
+     * Solves pi = pi * P with sum(pi) = 1 over the moods reachable from
+     * Happy. Throws if the policy leaves more than one closed set of moods,
+     * since the long-run distribution then depends on the path taken.
+     */
+    public double[] steadyState(InteractionPolicy policy) {
+        int moods = table.stateCount();
+        double[][] p = new double[moods][moods];
+        for (int s = 0; s < moods; s++) {
+            for (int a = 0; a < Action.COUNT; a++) {
+                p[s][table.next(s, a)] += policy.probability(Action.of(a));
+            }
+        }
+
+        boolean[] reachable = new boolean[moods];
+        reachable[TransitionTable.HAPPY] = true;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int s = 0; s < moods; s++) {
+                for (int t = 0; t < moods; t++) {
+                    if (reachable[s] && !reachable[t] && p[s][t] > 0) {
+                        reachable[t] = true;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        int[] index = new int[moods];
+        int n = 0;
+        for (int s = 0; s < moods; s++) {
+            index[s] = reachable[s] ? n++ : -1;
+        }
+
+        // Rows of (P^T - I), with the last equation replaced by sum(pi) = 1
+        double[][] a = new double[n][n + 1];
+        for (int s = 0; s < moods; s++) {
+            for (int t = 0; t < moods; t++) {
+                if (index[s] >= 0 && index[t] >= 0) {
+                    a[index[t]][index[s]] += p[s][t];
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            a[i][i] -= 1.0;
+        }
+        for (int j = 0; j <= n; j++) {
+            a[n - 1][j] = 1.0;
+        }
+
+        double[] solution = solve(a, n);
+        double[] distribution = new double[moods];
+        for (int s = 0; s < moods; s++) {
+            if (index[s] >= 0) {
+                distribution[s] = Math.max(0, solution[index[s]]);
+            }
+        }
+        return distribution;
+    }
+
+    private static double[] solve(double[][] a, int n) {
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < n; row++) {
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) {
+                    pivot = row;
+                }
+            }
+            if (Math.abs(a[pivot][col]) < 1e-12) {
+                throw new IllegalStateException("Policy has no unique steady state");
+            }
+            double[] swap = a[col];
+            a[col] = a[pivot];
+            a[pivot] = swap;
+            for (int row = 0; row < n; row++) {
+                if (row != col) {
+                    double factor = a[row][col] / a[col][col];
+                    for (int j = col; j <= n; j++) {
+                        a[row][j] -= factor * a[col][j];
+                    }
+                }
+            }
+        }
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = a[i][n] / a[i][i];
+        }
+        return x;
+    }
+
+    // Usage: java com.npc.PolicySimulator talk flattery curse exchange gift [steps]
+    public static void main(String[] args) {
+        double[] weights = { 0.7, 0, 0.1, 0, 0.2 };
+        long steps = 1_000_000_000L;
+        if (args.length >= Action.COUNT) {
+            for (int a = 0; a < Action.COUNT; a++) {
+                weights[a] = Double.parseDouble(args[a]);
+            }
+            if (args.length > Action.COUNT) {
+                steps = (long) Double.parseDouble(args[Action.COUNT]);
+            }
+        }
+
+        InteractionPolicy policy = new InteractionPolicy(weights);
+        PolicySimulator simulator = new PolicySimulator();
+        int workers = Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        double[] simulated = simulator.simulate(policy, steps, workers, System.nanoTime());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double[] exact = simulator.steadyState(policy);
+
+        System.out.println("Policy: " + policy);
+        System.out.println(steps + " steps on " + workers + " workers in "
+                + String.format("%.2f", seconds) + " s");
+        TransitionTable table = simulator.table;
+        for (int m = 0; m < table.stateCount(); m++) {
+            System.out.println(String.format("  %-8s simulated %.6f  exact %.6f",
+                    table.stateName(m), simulated[m], exact[m]));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.npc;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Applies a scripted interaction stream to every fairy of a population in
+ * parallel.
+ *
+ * Fairies are independent and the script is deterministic, so the outcome of
+ * the whole script depends only on a fairy's starting mood. The script is
+ * composed once into a start-mood -> final-mood map plus the transitions it
+ * causes; the fork-join partitions then only count starting moods and rewrite
+ * their own slice of the mood array, sharing nothing mutable.
+ */
+public class PopulationSimulator {
+    private static final int DEFAULT_THRESHOLD = 1 << 18;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public PopulationSimulator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public PopulationSimulator(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    public SimulationStats run(FairyPopulation population, Action... script) {
+        TransitionTable table = population.getTable();
+        int moodCount = table.stateCount();
+
+        // Compose the script: where each starting mood ends up, and which
+        // transitions it takes on the way
+        byte[] finalMood = new byte[moodCount];
+        long[][] path = new long[moodCount][moodCount * moodCount];
+        for (int start = 0; start < moodCount; start++) {
+            int mood = start;
+            for (Action action : script) {
+                int next = table.next(mood, action.code());
+                // Only a change of mood is a transition, as in FairyMetrics
+                if (next != mood) {
+                    path[start][mood * moodCount + next]++;
+                }
+                mood = next;
+            }
+            finalMood[start] = (byte) mood;
+        }
+
+        long[] startCounts = pool.invoke(new Partition(population.moods(), finalMood, moodCount,
+                0, population.size()));
+
+        SimulationStats stats = new SimulationStats(moodCount);
+        for (int start = 0; start < moodCount; start++) {
+            long fairies = startCounts[start];
+            if (fairies == 0) {
+                continue;
+            }
+            stats.addFairies(finalMood[start] & 0xFF, fairies);
+            for (int from = 0; from < moodCount; from++) {
+                for (int to = 0; to < moodCount; to++) {
+                    long taken = path[start][from * moodCount + to];
+                    if (taken > 0) {
+                        stats.addTransitions(from, to, taken * fairies);
+                    }
+                }
+            }
+        }
+        stats.addInteractions((long) population.size() * script.length);
+        return stats;
+    }
+
+    private final class Partition extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+        private final byte[] moods;
+        private final byte[] finalMood;
+        private final int moodCount;
+        private final int from;
+        private final int to;
+
+        Partition(byte[] moods, byte[] finalMood, int moodCount, int from, int to) {
+            this.moods = moods;
+            this.finalMood = finalMood;
+            this.moodCount = moodCount;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= threshold) {
+                long[] counts = new long[moodCount];
+                byte[] m = moods;
+                byte[] f = finalMood;
+                for (int i = from; i < to; i++) {
+                    int mood = m[i] & 0xFF;
+                    counts[mood]++;
+                    m[i] = f[mood];
+                }
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            Partition left = new Partition(moods, finalMood, moodCount, from, mid);
+            Partition right = new Partition(moods, finalMood, moodCount, mid, to);
+            left.fork();
+            long[] counts = right.compute();
+            long[] other = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other[i];
+            }
+            return counts;
+        }
+    }
+}
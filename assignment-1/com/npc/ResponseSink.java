@@ -0,0 +1,20 @@
+package com.npc;
+
+/**
+ * Destination for the fairy's responses. States hand their lines to the
+ * fairy, which forwards them here instead of writing to System.out directly.
+ */
+public interface ResponseSink {
+    void respond(String message);
+
+    default void flush() {
+    }
+
+    static ResponseSink console() {
+        return ConsoleSink.INSTANCE;
+    }
+
+    static ResponseSink discard() {
+        return DiscardSink.INSTANCE;
+    }
+}
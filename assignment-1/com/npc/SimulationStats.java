@@ -0,0 +1,65 @@
+package com.npc;
+
+/**
+ * Mood distribution and transition counts gathered by a simulation run.
+ */
+public class SimulationStats {
+    private final int moodCount;
+    private final long[] moods;
+    private final long[] transitions;
+    private long interactions;
+
+    public SimulationStats(int moodCount) {
+        this.moodCount = moodCount;
+        this.moods = new long[moodCount];
+        this.transitions = new long[moodCount * moodCount];
+    }
+
+    public int getMoodCount() {
+        return moodCount;
+    }
+
+    public long getFairiesIn(int mood) {
+        return moods[mood];
+    }
+
+    public long getTransitions(int from, int to) {
+        return transitions[from * moodCount + to];
+    }
+
+    public long getInteractions() {
+        return interactions;
+    }
+
+    void addFairies(int mood, long count) {
+        moods[mood] += count;
+    }
+
+    void addTransitions(int from, int to, long count) {
+        transitions[from * moodCount + to] += count;
+    }
+
+    void addInteractions(long count) {
+        interactions += count;
+    }
+
+    public String format(TransitionTable table) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Interactions: ").append(interactions).append('\n');
+        sb.append("Final moods:\n");
+        for (int m = 0; m < moodCount; m++) {
+            sb.append("  ").append(table.stateName(m)).append(": ").append(moods[m]).append('\n');
+        }
+        sb.append("Transitions:\n");
+        for (int from = 0; from < moodCount; from++) {
+            for (int to = 0; to < moodCount; to++) {
+                long count = getTransitions(from, to);
+                if (count > 0) {
+                    sb.append("  ").append(table.stateName(from)).append(" -> ")
+                      .append(table.stateName(to)).append(": ").append(count).append('\n');
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
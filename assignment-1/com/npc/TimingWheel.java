@@ -0,0 +1,162 @@
+package com.npc;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel for a fixed range of integer ids.
+ *
+ * Four levels of 256 slots each cover 2^32 ticks. Timers are intrusive: the
+ * per-id deadline and the doubly linked slot lists live in primitive arrays
+ * indexed by id, so scheduling and cancelling are O(1) and millions of
+ * timers cost a few bytes each instead of one object (or thread) per timer.
+ * Expired ids are handed to the handler in batches, one tick at a time, so a
+ * handler can schedule follow-up timers from the tick that expired and have
+ * them fire within the same advance.
+ */
+public class TimingWheel {
+    public interface ExpiryHandler {
+        // All ids expired at tick, which is also the current tick during the call
+        void expired(int[] ids, int count, long tick);
+    }
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int NONE = -1;
+    private static final int BATCH = 1024;
+
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final int[] next;
+    private final int[] prev;
+    private final int[] slotOf;
+    private final long[] deadlines;
+    private final int[] batch = new int[BATCH];
+    private long currentTick;
+    private int scheduled;
+
+    public TimingWheel(int capacity) {
+        next = new int[capacity];
+        prev = new int[capacity];
+        slotOf = new int[capacity];
+        deadlines = new long[capacity];
+        Arrays.fill(heads, NONE);
+        Arrays.fill(slotOf, NONE);
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return scheduled;
+    }
+
+    public boolean isScheduled(int id) {
+        return slotOf[id] != NONE;
+    }
+
+    public long getDeadline(int id) {
+        return deadlines[id];
+    }
+
+    // Schedules (or reschedules) id to expire at the given absolute tick
+    public void schedule(int id, long deadlineTick) {
+        if (slotOf[id] != NONE) {
+            unlink(id);
+        } else {
+            scheduled++;
+        }
+        deadlines[id] = Math.max(deadlineTick, currentTick + 1);
+        link(id);
+    }
+
+    public void scheduleAfter(int id, long ticks) {
+        schedule(id, currentTick + ticks);
+    }
+
+    public boolean cancel(int id) {
+        if (slotOf[id] == NONE) {
+            return false;
+        }
+        unlink(id);
+        scheduled--;
+        return true;
+    }
+
+    // Moves time forward to targetTick, firing every timer that expires
+    public void advanceTo(long targetTick, ExpiryHandler handler) {
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick & SLOT_MASK);
+            int id = heads[slot];
+            heads[slot] = NONE;
+            int count = 0;
+            while (id != NONE) {
+                int following = next[id];
+                slotOf[id] = NONE;
+                scheduled--;
+                batch[count++] = id;
+                if (count == BATCH) {
+                    handler.expired(batch, count, currentTick);
+                    count = 0;
+                }
+                id = following;
+            }
+            if (count > 0) {
+                handler.expired(batch, count, currentTick);
+            }
+        }
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            int slot = level * SLOTS + (int) ((currentTick >>> shift) & SLOT_MASK);
+            int id = heads[slot];
+            heads[slot] = NONE;
+            while (id != NONE) {
+                int following = next[id];
+                link(id);
+                id = following;
+            }
+        }
+    }
+
+    private void link(int id) {
+        long deadline = deadlines[id];
+        long delta = deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = level * SLOTS + (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        int head = heads[slot];
+        next[id] = head;
+        prev[id] = NONE;
+        if (head != NONE) {
+            prev[head] = id;
+        }
+        heads[slot] = id;
+        slotOf[id] = slot;
+    }
+
+    private void unlink(int id) {
+        int slot = slotOf[id];
+        int before = prev[id];
+        int after = next[id];
+        if (before == NONE) {
+            heads[slot] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+        slotOf[id] = NONE;
+    }
+}
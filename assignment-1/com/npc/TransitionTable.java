@@ -0,0 +1,141 @@
+package com.npc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dense [state][action] table compiled from State implementations.
+ *
+ * Each state is probed once per action against a recording fairy; the
+ * resulting mood and the response it gives are stored so that dispatch at
+ * runtime is a single array lookup with no allocation. Moods are identified
+ * by their State class, so custom moods are picked up as long as they are
+ * reachable from one of the roots passed to {@link #compile(State...)}.
+ */
+public final class TransitionTable {
+    public static final int HAPPY = 0;
+    public static final int SAD = 1;
+    public static final int ANGRY = 2;
+
+    private final State[] states;
+    private final int[] next;
+    private final String[] responses;
+
+    private TransitionTable(State[] states, int[] next, String[] responses) {
+        this.states = states;
+        this.next = next;
+        this.responses = responses;
+    }
+
+    public static TransitionTable standard() {
+        return Standard.TABLE;
+    }
+
+    public static TransitionTable compile(State... roots) {
+        List<State> states = new ArrayList<>();
+        for (State root : roots) {
+            if (indexOf(states, root) < 0) {
+                states.add(root);
+            }
+        }
+
+        List<Integer> next = new ArrayList<>();
+        List<String> responses = new ArrayList<>();
+        for (int s = 0; s < states.size(); s++) {
+            for (Action action : Action.values()) {
+                ProbeFairy probe = new ProbeFairy(states.get(s));
+                String response = probe.run(action);
+
+                int target = indexOf(states, probe.getState());
+                if (target < 0) {
+                    target = states.size();
+                    states.add(probe.getState());
+                }
+                next.add(target);
+                responses.add(response);
+            }
+        }
+
+        int[] nextArray = new int[next.size()];
+        for (int i = 0; i < nextArray.length; i++) {
+            nextArray[i] = next.get(i);
+        }
+        return new TransitionTable(states.toArray(new State[0]), nextArray,
+                responses.toArray(new String[0]));
+    }
+
+    public int stateCount() {
+        return states.length;
+    }
+
+    public State state(int index) {
+        return states[index];
+    }
+
+    public String stateName(int index) {
+        String name = states[index].getClass().getSimpleName();
+        return name.endsWith("State") ? name.substring(0, name.length() - 5) : name;
+    }
+
+    public int indexOf(State state) {
+        for (int i = 0; i < states.length; i++) {
+            if (states[i].getClass() == state.getClass()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int next(int state, int action) {
+        return next[state * Action.COUNT + action];
+    }
+
+    public String response(int state, int action) {
+        return responses[state * Action.COUNT + action];
+    }
+
+    // Next mood for every current mood under one action, packed as bytes
+    public byte[] column(int action) {
+        if (states.length > 256) {
+            throw new IllegalStateException("Too many moods to pack into a byte: " + states.length);
+        }
+        byte[] column = new byte[states.length];
+        for (int s = 0; s < states.length; s++) {
+            column[s] = (byte) next(s, action);
+        }
+        return column;
+    }
+
+    private static int indexOf(List<State> states, State state) {
+        for (int i = 0; i < states.size(); i++) {
+            if (states.get(i).getClass() == state.getClass()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Standard {
+        static final TransitionTable TABLE =
+                compile(new HappyState(), new SadState(), new AngryState());
+    }
+
+    private static final class ProbeFairy extends Fairy implements ResponseSink {
+        private String response;
+
+        ProbeFairy(State state) {
+            super(state);
+            setSink(this);
+        }
+
+        @Override
+        public void respond(String message) {
+            response = response == null ? message : response + System.lineSeparator() + message;
+        }
+
+        String run(Action action) {
+            action.invoke(getState(), this);
+            return response == null ? "" : response;
+        }
+    }
+}
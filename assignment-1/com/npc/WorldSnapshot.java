@@ -0,0 +1,153 @@
+package com.npc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Versioned snapshot file holding the mood of every fairy in a world.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int   magic "FWS1"
+ *   int   version
+ *   long  fairy count
+ *   int   mood count
+ *   mood names, each as a short length followed by UTF-8 bytes
+ *   one mood byte per fairy, where the fairy id is the byte's position
+ * </pre>
+ * The mood section is copied to and from memory-mapped windows in bulk, so
+ * loading builds a single byte array rather than an object per fairy. Mood
+ * names let a snapshot be loaded against a table that orders moods
+ * differently.
+ */
+public final class WorldSnapshot {
+    public static final int MAGIC = 0x46575331;
+    public static final int VERSION = 1;
+
+    private static final int WINDOW = 1 << 30;
+
+    private WorldSnapshot() {
+    }
+
+    public static void save(FairyPopulation population, Path file) throws IOException {
+        TransitionTable table = population.getTable();
+        byte[] moods = population.moods();
+        byte[] header = header(table, moods.length);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = header.length + (long) moods.length;
+            long position = 0;
+            int offset = 0;
+            while (position < size) {
+                int length = (int) Math.min(WINDOW, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+                if (position == 0) {
+                    buffer.put(header);
+                }
+                int count = buffer.remaining();
+                buffer.put(moods, offset, count);
+                offset += count;
+                position += length;
+                buffer.force();
+            }
+        }
+    }
+
+    public static FairyPopulation load(Path file) throws IOException {
+        return load(file, TransitionTable.standard());
+    }
+
+    public static FairyPopulation load(Path file, TransitionTable table) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, 1 << 16));
+            if (head.remaining() < 20 || head.getInt() != MAGIC) {
+                throw new IOException("Not a fairy world snapshot: " + file);
+            }
+            int version = head.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            long count = head.getLong();
+            if (count < 0 || count > Integer.MAX_VALUE - 8) {
+                throw new IOException("Snapshot holds an invalid fairy count: " + count);
+            }
+            byte[] remap = readMoods(head, table, file);
+            long position = head.position();
+            if (size - position < count) {
+                throw new IOException("Snapshot is truncated: " + file);
+            }
+
+            byte[] moods = new byte[(int) count];
+            int offset = 0;
+            while (offset < count) {
+                int length = (int) Math.min(WINDOW, count - offset);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                buffer.get(moods, offset, length);
+                offset += length;
+                position += length;
+            }
+            for (int i = 0; i < moods.length; i++) {
+                int mood = moods[i] & 0xFF;
+                if (mood >= remap.length) {
+                    throw new IOException("Snapshot fairy " + i + " has unknown mood " + mood);
+                }
+                moods[i] = remap[mood];
+            }
+            return new FairyPopulation(table, moods);
+        }
+    }
+
+    private static byte[] header(TransitionTable table, int fairies) {
+        int moodCount = table.stateCount();
+        byte[][] names = new byte[moodCount][];
+        int length = 20;
+        for (int m = 0; m < moodCount; m++) {
+            names[m] = table.stateName(m).getBytes(StandardCharsets.UTF_8);
+            length += 2 + names[m].length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(length);
+        header.putInt(MAGIC).putInt(VERSION).putLong(fairies).putInt(moodCount);
+        for (byte[] name : names) {
+            header.putShort((short) name.length).put(name);
+        }
+        return header.array();
+    }
+
+    // Returns the file-mood -> table-mood mapping, one entry per mood the file names
+    private static byte[] readMoods(ByteBuffer head, TransitionTable table, Path file) throws IOException {
+        int moodCount = head.getInt();
+        if (moodCount < 1 || moodCount > 256) {
+            throw new IOException("Snapshot holds an invalid mood count: " + moodCount);
+        }
+        byte[] remap = new byte[moodCount];
+        for (int m = 0; m < moodCount; m++) {
+            if (head.remaining() < 2) {
+                throw new IOException("Snapshot header is truncated: " + file);
+            }
+            byte[] name = new byte[head.getShort() & 0xFFFF];
+            if (head.remaining() < name.length) {
+                throw new IOException("Snapshot header is truncated: " + file);
+            }
+            head.get(name);
+            String mood = new String(name, StandardCharsets.UTF_8);
+            int index = -1;
+            for (int t = 0; t < table.stateCount(); t++) {
+                if (table.stateName(t).equals(mood)) {
+                    index = t;
+                }
+            }
+            if (index < 0) {
+                throw new IOException("Snapshot mood not in transition table: " + mood);
+            }
+            remap[m] = (byte) index;
+        }
+        return remap;
+    }
+}
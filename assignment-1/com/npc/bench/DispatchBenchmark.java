@@ -0,0 +1,233 @@
+package com.npc.bench;
+
+import com.npc.Action;
+import com.npc.CompiledFairy;
+import com.npc.Fairy;
+import com.npc.HappyState;
+import com.npc.ResponseSink;
+import com.npc.State;
+import com.npc.TransitionTable;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares the cost of one fairy interaction across dispatch strategies:
+ * the allocating State classes, singleton states, an enum switch and the
+ * compiled transition table. Each strategy runs under monomorphic (one
+ * mood), bimorphic (two moods) and megamorphic (three moods) scripts and
+ * reports throughput and bytes allocated per interaction.
+ *
+ * Usage: java com.npc.bench.DispatchBenchmark [seconds per measurement] [strategy]
+ *
+ * Strategies share call sites inside this harness, so pass a strategy name
+ * to measure it in a fresh JVM without the others polluting its profile.
+ */
+public class DispatchBenchmark {
+    private static final int BATCH = 1 << 20;
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final Action[] MONOMORPHIC = {
+        Action.TALK, Action.FLATTERY, Action.EXCHANGE, Action.GIVE_GIFT
+    };
+    private static final Action[] BIMORPHIC = {
+        Action.CURSE, Action.TALK, Action.GIVE_GIFT, Action.TALK
+    };
+    private static final Action[] MEGAMORPHIC = {
+        Action.CURSE, Action.FLATTERY, Action.TALK, Action.GIVE_GIFT, Action.CURSE, Action.FLATTERY,
+        Action.FLATTERY, Action.EXCHANGE
+    };
+
+    private static long blackhole;
+
+    interface Subject {
+        void interact(Action action);
+
+        int mood();
+    }
+
+    public static void main(String[] args) {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 1.0;
+        String only = args.length > 1 ? args[1] : null;
+        String[] names = { "allocating-state", "singleton-state", "enum-switch", "table-lookup" };
+        String[] profiles = { "monomorphic", "bimorphic", "megamorphic" };
+        Action[][] scripts = { MONOMORPHIC, BIMORPHIC, MEGAMORPHIC };
+
+        System.out.printf("%-18s %-12s %16s %12s%n", "strategy", "profile", "ops/sec", "bytes/op");
+        for (int s = 0; s < names.length; s++) {
+            if (only != null && !only.equals(names[s])) {
+                continue;
+            }
+            for (int p = 0; p < profiles.length; p++) {
+                Subject subject = create(s);
+                Action[] script = expand(scripts[p]);
+                for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                    measure(subject, script, seconds / 2);
+                }
+                double[] result = measure(subject, script, seconds);
+                System.out.printf("%-18s %-12s %16.0f %12.2f%n", names[s], profiles[p], result[0], result[1]);
+            }
+        }
+        if (blackhole == 42) {
+            System.out.println();
+        }
+    }
+
+    private static Subject create(int strategy) {
+        switch (strategy) {
+            case 0:
+                return new StateSubject(new HappyState());
+            case 1:
+                return new StateSubject(Singletons.HAPPY);
+            case 2:
+                return new EnumSubject();
+            default:
+                return new TableSubject();
+        }
+    }
+
+    private static Action[] expand(Action[] pattern) {
+        Action[] script = new Action[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            script[i] = pattern[i % pattern.length];
+        }
+        return script;
+    }
+
+    // Returns { ops/sec, bytes allocated per op }
+    private static double[] measure(Subject subject, Action[] script, double seconds) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long budget = (long) (seconds * 1e9);
+        long ops = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (Action action : script) {
+                subject.interact(action);
+            }
+            ops += script.length;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget);
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        blackhole += subject.mood();
+        return new double[] { ops / (elapsed / 1e9), (double) allocated / ops };
+    }
+
+    private static final class StateSubject implements Subject {
+        private final Fairy fairy;
+
+        StateSubject(State initial) {
+            fairy = new Fairy(initial, ResponseSink.discard());
+        }
+
+        @Override
+        public void interact(Action action) {
+            switch (action) {
+                case TALK:
+                    fairy.talk();
+                    break;
+                case FLATTERY:
+                    fairy.flattery();
+                    break;
+                case CURSE:
+                    fairy.curse();
+                    break;
+                case EXCHANGE:
+                    fairy.exchange();
+                    break;
+                case GIVE_GIFT:
+                    fairy.giveGift();
+                    break;
+            }
+        }
+
+        @Override
+        public int mood() {
+            return fairy.getState().getClass().hashCode();
+        }
+    }
+
+    private static final class TableSubject implements Subject {
+        private final CompiledFairy fairy =
+                new CompiledFairy(TransitionTable.standard(), ResponseSink.discard());
+
+        @Override
+        public void interact(Action action) {
+            fairy.interact(action);
+        }
+
+        @Override
+        public int mood() {
+            return fairy.getMood();
+        }
+    }
+
+    private static final class EnumSubject implements Subject {
+        private final ResponseSink sink = ResponseSink.discard();
+        private Mood mood = Mood.HAPPY;
+
+        @Override
+        public void interact(Action action) {
+            switch (mood) {
+                case HAPPY:
+                    switch (action) {
+                        case TALK: sink.respond("The fairy smiles and chats happily with you."); break;
+                        case FLATTERY: sink.respond("The fairy giggles. She loves the compliment!"); break;
+                        case CURSE:
+                            sink.respond("The fairy is shocked by your rudeness! She becomes angry.");
+                            mood = Mood.ANGRY;
+                            break;
+                        case EXCHANGE: sink.respond("The fairy happily exchanges equipment with you."); break;
+                        case GIVE_GIFT: sink.respond("The fairy is delighted with your gift!"); break;
+                    }
+                    break;
+                case SAD:
+                    switch (action) {
+                        case TALK: sink.respond("The fairy sighs and doesn't want to say much."); break;
+                        case FLATTERY:
+                            sink.respond("The fairy feels a bit better thanks to your kind words.");
+                            mood = Mood.HAPPY;
+                            break;
+                        case CURSE:
+                            sink.respond("The fairy bursts into tears and gets angry at your cruelty.");
+                            mood = Mood.ANGRY;
+                            break;
+                        case EXCHANGE: sink.respond("The fairy is too sad to trade right now."); break;
+                        case GIVE_GIFT:
+                            sink.respond("The fairy wipes her tears and smiles. She appreciates the gift.");
+                            mood = Mood.HAPPY;
+                            break;
+                    }
+                    break;
+                case ANGRY:
+                    switch (action) {
+                        case TALK: sink.respond("The fairy glares at you and refuses to talk."); break;
+                        case FLATTERY:
+                            sink.respond("The fairy isn't impressed, but she calms down a little.");
+                            mood = Mood.SAD;
+                            break;
+                        case CURSE: sink.respond("The fairy is furious! She attacks you with magic!"); break;
+                        case EXCHANGE:
+                            sink.respond("The fairy is in a bad mood. She confiscated your equipment.");
+                            break;
+                        case GIVE_GIFT:
+                            sink.respond("The fairy accepts the gift and her mood improves slightly.");
+                            mood = Mood.HAPPY;
+                            break;
+                    }
+                    break;
+            }
+        }
+
+        @Override
+        public int mood() {
+            return mood.ordinal();
+        }
+    }
+
+    private enum Mood {
+        HAPPY, SAD, ANGRY
+    }
+}
@@ -0,0 +1,104 @@
+package com.npc.bench;
+
+import com.npc.Fairy;
+import com.npc.State;
+
+/**
+ * Copies of the three moods that reuse one shared instance per mood instead
+ * of allocating a new State on every transition.
+ */
+final class Singletons {
+    static final State HAPPY = new Happy();
+    static final State SAD = new Sad();
+    static final State ANGRY = new Angry();
+
+    private Singletons() {
+    }
+
+    private static final class Happy implements State {
+        @Override
+        public void talk(Fairy fairy) {
+            fairy.say("The fairy smiles and chats happily with you.");
+        }
+
+        @Override
+        public void flattery(Fairy fairy) {
+            fairy.say("The fairy giggles. She loves the compliment!");
+        }
+
+        @Override
+        public void curse(Fairy fairy) {
+            fairy.say("The fairy is shocked by your rudeness! She becomes angry.");
+            fairy.setState(ANGRY);
+        }
+
+        @Override
+        public void exchange(Fairy fairy) {
+            fairy.say("The fairy happily exchanges equipment with you.");
+        }
+
+        @Override
+        public void giveGift(Fairy fairy) {
+            fairy.say("The fairy is delighted with your gift!");
+        }
+    }
+
+    private static final class Sad implements State {
+        @Override
+        public void talk(Fairy fairy) {
+            fairy.say("The fairy sighs and doesn't want to say much.");
+        }
+
+        @Override
+        public void flattery(Fairy fairy) {
+            fairy.say("The fairy feels a bit better thanks to your kind words.");
+            fairy.setState(HAPPY);
+        }
+
+        @Override
+        public void curse(Fairy fairy) {
+            fairy.say("The fairy bursts into tears and gets angry at your cruelty.");
+            fairy.setState(ANGRY);
+        }
+
+        @Override
+        public void exchange(Fairy fairy) {
+            fairy.say("The fairy is too sad to trade right now.");
+        }
+
+        @Override
+        public void giveGift(Fairy fairy) {
+            fairy.say("The fairy wipes her tears and smiles. She appreciates the gift.");
+            fairy.setState(HAPPY);
+        }
+    }
+
+    private static final class Angry implements State {
+        @Override
+        public void talk(Fairy fairy) {
+            fairy.say("The fairy glares at you and refuses to talk.");
+        }
+
+        @Override
+        public void flattery(Fairy fairy) {
+            fairy.say("The fairy isn't impressed, but she calms down a little.");
+            fairy.setState(SAD);
+        }
+
+        @Override
+        public void curse(Fairy fairy) {
+            fairy.say("The fairy is furious! She attacks you with magic!");
+        }
+
+        @Override
+        public void exchange(Fairy fairy) {
+            fairy.say("The fairy is in a bad mood. She confiscated your equipment.");
+        }
+
+        @Override
+        public void giveGift(Fairy fairy) {
+            fairy.say("The fairy accepts the gift and her mood improves slightly.");
+            fairy.setState(HAPPY);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.student;
 
+import java.util.Collections;
+import java.util.List;
+
 public class AddStudentCommand implements Command {
     private StudentManager manager;
     private Student student;
+    private Student replaced;
 
     public AddStudentCommand(StudentManager manager, Student student) {
         this.manager = manager;
@@ -11,16 +15,33 @@ public class AddStudentCommand implements Command {
 
     @Override
     public void execute() {
+        // Another thread may have added the same id first; undo puts it back
+        replaced = manager.getStudent(student.getId());
         manager.addStudent(student);
         System.out.println("Student added successfully: " + student.getName());
     }
 
     @Override
     public void undo() {
+        if (replaced != null) {
+            manager.updateStudent(replaced);
+            System.out.println("Undo: Student restored to previous state - " + replaced.getName());
+            return;
+        }
         manager.removeStudent(student.getId());
         System.out.println("Undo: Student removed - " + student.getName());
     }
 
+    @Override
+    public List<String> getStudentIds() {
+        return Collections.singletonList(student.getId());
+    }
+
+    @Override
+    public List<StudentChange> getChanges() {
+        return Collections.singletonList(new StudentChange(student.getId(), replaced, student));
+    }
+
     @Override
     public String getDescription() {
         return "Add student: " + student.getName();
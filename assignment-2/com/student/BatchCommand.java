@@ -0,0 +1,133 @@
+package com.student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies many adds, updates and deletes as one command: it takes a single
+ * history entry, is persisted with a single log commit and is undone as a
+ * whole.
+ */
+public class BatchCommand implements Command {
+    private static final byte ADD = 0;
+    private static final byte UPDATE = 1;
+    private static final byte DELETE = 2;
+
+    private StudentManager manager;
+    private List<Operation> operations = new ArrayList<>();
+    private Student[] previous;
+
+    public BatchCommand(StudentManager manager) {
+        this.manager = manager;
+    }
+
+    public BatchCommand add(Student student) {
+        operations.add(new Operation(ADD, student.getId(), student));
+        return this;
+    }
+
+    public BatchCommand update(Student student) {
+        operations.add(new Operation(UPDATE, student.getId(), student));
+        return this;
+    }
+
+    public BatchCommand delete(String studentId) {
+        operations.add(new Operation(DELETE, studentId, null));
+        return this;
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    // Either every operation is applied or, if one fails, none are
+    @Override
+    public void execute() {
+        for (Operation operation : operations) {
+            if (operation.student != null) {
+                StudentCodec.checkEncodable(operation.student);
+            }
+        }
+        manager.ensureCapacity(operations.size());
+        previous = new Student[operations.size()];
+        int applied = 0;
+        try {
+            for (; applied < operations.size(); applied++) {
+                Operation operation = operations.get(applied);
+                previous[applied] = manager.getStudent(operation.id);
+                switch (operation.type) {
+                    case ADD:
+                        manager.addStudent(operation.student);
+                        break;
+                    case UPDATE:
+                        manager.updateStudent(operation.student);
+                        break;
+                    default:
+                        if (previous[applied] != null) {
+                            manager.removeStudent(operation.id);
+                        }
+                }
+            }
+        } catch (RuntimeException e) {
+            revert(applied);
+            throw e;
+        }
+        System.out.println("Batch applied: " + operations.size() + " operations");
+    }
+
+    @Override
+    public void undo() {
+        revert(operations.size());
+        System.out.println("Undo: Batch of " + operations.size() + " operations reverted");
+    }
+
+    // Reverts the first count operations, newest first
+    private void revert(int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            Operation operation = operations.get(i);
+            if (previous[i] != null) {
+                manager.updateStudent(previous[i]);
+            } else if (operation.type != DELETE) {
+                manager.removeStudent(operation.id);
+            }
+        }
+    }
+
+    @Override
+    public List<String> getStudentIds() {
+        List<String> ids = new ArrayList<>(operations.size());
+        for (Operation operation : operations) {
+            ids.add(operation.id);
+        }
+        return ids;
+    }
+
+    @Override
+    public List<StudentChange> getChanges() {
+        List<StudentChange> changes = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            if (operation.type != DELETE || previous[i] != null) {
+                changes.add(new StudentChange(operation.id, previous[i], operation.student));
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Batch of " + operations.size() + " operations";
+    }
+
+    private static final class Operation {
+        final byte type;
+        final String id;
+        final Student student;
+
+        Operation(byte type, String id, Student student) {
+            this.type = type;
+            this.id = id;
+            this.student = student;
+        }
+    }
+}
@@ -1,7 +1,21 @@
 package com.student;
 
+import java.util.Collections;
+import java.util.List;
+
 public interface Command {
     void execute();
     void undo();
     String getDescription();
+
+    // Ids this command touches; empty means it may touch any student
+    default List<String> getStudentIds() {
+        return Collections.emptyList();
+    }
+
+    // Records before and after the last execute(), so the command can be
+    // kept as deltas; null if it cannot be described that way
+    default List<StudentChange> getChanges() {
+        return null;
+    }
 }
@@ -0,0 +1,137 @@
+package com.student;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Stress test for ConcurrentStudentManager: runs a mix of add, update and
+ * delete commands from 1, 2, 4 ... N threads against a throw-away store and
+ * reports commands/sec for each thread count, with the speedup over one
+ * thread. N defaults to at least 8; thread counts above the number of cores
+ * are marked, since they cannot scale. After each run it undoes every
+ * command and checks the store is back to its initial contents, which
+ * fails if the undo history got out of order.
+ *
+ * Usage: java com.student.ConcurrentStressTest [commands per thread] [ids] [max threads]
+ */
+public class ConcurrentStressTest {
+    public static void main(String[] args) throws Exception {
+        int perThread = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int idSpace = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(cores, 8);
+        PrintStream console = System.out;
+        double single = 0;
+        boolean failed = false;
+
+        console.printf("%d cores%n", cores);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Path directory = Files.createTempDirectory("students-stress");
+            ConcurrentStudentManager manager = new ConcurrentStudentManager(
+                    new StoreOptions().directory(directory).compactionThreshold(Long.MAX_VALUE)
+                            .undoFileLimit(Long.MAX_VALUE));
+            // Commands report to the console; keep that out of the measurement
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            try {
+                for (int i = 0; i < idSpace; i += 2) {
+                    manager.addStudent(student("s" + i, 0));
+                }
+                Map<String, Student> initial = contents(manager);
+
+                long elapsed = run(manager, threads, perThread, idSpace);
+                for (long i = (long) threads * perThread; i > 0; i--) {
+                    manager.undoLastCommand();
+                }
+                boolean consistent = initial.equals(contents(manager))
+                        && sameFields(initial, contents(manager));
+
+                double throughput = (double) threads * perThread / (elapsed / 1e9);
+                if (threads == 1) {
+                    single = throughput;
+                }
+                failed |= !consistent;
+                console.printf("%2d threads: %,12.0f commands/sec  %5.2fx  undo %s%s%n", threads, throughput,
+                        throughput / single, consistent ? "consistent" : "INCONSISTENT",
+                        threads > cores ? "  (more threads than cores)" : "");
+            } finally {
+                System.setOut(console);
+                manager.close();
+                delete(directory);
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static long run(ConcurrentStudentManager manager, int threads, int perThread, int idSpace)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        SplittableRandom seed = new SplittableRandom(42);
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = seed.split();
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        String id = "s" + random.nextInt(idSpace);
+                        int op = random.nextInt(10);
+                        if (op < 5) {
+                            manager.executeCommand(new UpdateStudentCommand(manager, student(id, i)));
+                        } else if (op < 8) {
+                            manager.executeCommand(new AddStudentCommand(manager, student(id, i)));
+                        } else {
+                            manager.executeCommand(new DeleteStudentCommand(manager, id));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    private static Student student(String id, int version) {
+        return new Student(id, "Student " + id, 18 + version % 10, "Major" + version % 7, (version % 400) / 100.0);
+    }
+
+    private static Map<String, Student> contents(StudentManager manager) {
+        Map<String, Student> contents = new HashMap<>();
+        manager.forEachStudent(student -> contents.put(student.getId(), student));
+        return contents;
+    }
+
+    // Student.equals only compares ids, so compare the fields explicitly
+    private static boolean sameFields(Map<String, Student> expected, Map<String, Student> actual) {
+        for (Student student : expected.values()) {
+            Student other = actual.get(student.getId());
+            if (other == null || !student.toString().equals(other.toString())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.student;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * StudentManager that can be shared by concurrent request handlers.
+ *
+ * Students live in a ConcurrentHashMap and every student id hashes to one
+ * of a fixed set of lock stripes. A command holds the stripes of the ids it
+ * touches (in ascending order, so batches cannot deadlock) while it runs and
+ * while it is pushed onto the undo history: commands on different ids run in
+ * parallel, commands on the same id are totally ordered, and the history
+ * order agrees with that order. Undo and compaction take an exclusive lock so
+ * they never interleave with a running command. Secondary indexes are built
+ * up front.
+ */
+public class ConcurrentStudentManager extends StudentManager {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+    private final ThreadLocal<int[]> commandDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    public ConcurrentStudentManager() {
+        this(new StoreOptions());
+    }
+
+    public ConcurrentStudentManager(StoreOptions options) {
+        this(options, DEFAULT_STRIPES);
+    }
+
+    public ConcurrentStudentManager(StoreOptions options, int stripeCount) {
+        // The lazy map is not thread-safe; load eagerly without changing the caller's options
+        super(options.copy().lazyLoad(false));
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        buildIndexes();
+    }
+
+    @Override
+    protected Map<String, Student> prepareMap(Map<String, Student> loaded) {
+        return new ConcurrentHashMap<>(loaded);
+    }
+
+    @Override
+    public void addStudent(Student student) {
+        lockOne(student.getId());
+        try {
+            super.addStudent(student);
+        } finally {
+            unlockOne(student.getId());
+        }
+    }
+
+    @Override
+    public void removeStudent(String studentId) {
+        lockOne(studentId);
+        try {
+            super.removeStudent(studentId);
+        } finally {
+            unlockOne(studentId);
+        }
+    }
+
+    @Override
+    public void updateStudent(Student student) {
+        lockOne(student.getId());
+        try {
+            super.updateStudent(student);
+        } finally {
+            unlockOne(student.getId());
+        }
+    }
+
+    @Override
+    public void executeCommand(Command command) {
+        List<String> ids = command.getStudentIds();
+        if (ids.isEmpty()) {
+            gate.writeLock().lock();
+            try {
+                runAndRecord(command);
+            } finally {
+                gate.writeLock().unlock();
+            }
+        } else {
+            boolean[] held = stripesFor(ids);
+            gate.readLock().lock();
+            try {
+                lockStripes(held);
+                try {
+                    runAndRecord(command);
+                } finally {
+                    unlockStripes(held);
+                }
+            } finally {
+                gate.readLock().unlock();
+            }
+        }
+        commit();
+    }
+
+    @Override
+    public void undoLastCommand() {
+        gate.writeLock().lock();
+        try {
+            Runnable lastUndo = takeLastUndo();
+            if (lastUndo == null) {
+                return;
+            }
+            enterCommand();
+            try {
+                lastUndo.run();
+            } finally {
+                exitCommand();
+            }
+        } finally {
+            gate.writeLock().unlock();
+        }
+        commit();
+    }
+
+    @Override
+    public void compact() {
+        gate.writeLock().lock();
+        try {
+            super.compact();
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void enterCommand() {
+        commandDepth.get()[0]++;
+    }
+
+    @Override
+    protected void exitCommand() {
+        commandDepth.get()[0]--;
+    }
+
+    @Override
+    protected boolean inCommand() {
+        return commandDepth.get()[0] > 0;
+    }
+
+    private void runAndRecord(Command command) {
+        enterCommand();
+        try {
+            command.execute();
+        } finally {
+            exitCommand();
+        }
+        recordCommand(command);
+    }
+
+    private void lockOne(String id) {
+        gate.readLock().lock();
+        stripes[stripeOf(id)].lock();
+    }
+
+    private void unlockOne(String id) {
+        stripes[stripeOf(id)].unlock();
+        gate.readLock().unlock();
+    }
+
+    private boolean[] stripesFor(List<String> ids) {
+        boolean[] held = new boolean[stripes.length];
+        for (String id : ids) {
+            held[stripeOf(id)] = true;
+        }
+        return held;
+    }
+
+    private void lockStripes(boolean[] held) {
+        for (int i = 0; i < held.length; i++) {
+            if (held[i]) {
+                stripes[i].lock();
+            }
+        }
+    }
+
+    private void unlockStripes(boolean[] held) {
+        for (int i = held.length - 1; i >= 0; i--) {
+            if (held[i]) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    private int stripeOf(String id) {
+        int h = id.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -1,16 +1,23 @@
 package com.student;
 
+import java.util.Collections;
+import java.util.List;
+
 public class DeleteStudentCommand implements Command {
     private StudentManager manager;
+    private String studentId;
     private Student deletedStudent;
 
     public DeleteStudentCommand(StudentManager manager, String studentId) {
         this.manager = manager;
+        this.studentId = studentId;
         this.deletedStudent = manager.getStudent(studentId);
     }
 
     @Override
     public void execute() {
+        // Re-read in case the record changed since this command was created
+        deletedStudent = manager.getStudent(studentId);
         if (deletedStudent != null) {
             manager.removeStudent(deletedStudent.getId());
             System.out.println("Student deleted successfully: " + deletedStudent.getName());
@@ -27,6 +34,19 @@ public class DeleteStudentCommand implements Command {
         }
     }
 
+    @Override
+    public List<String> getStudentIds() {
+        return Collections.singletonList(studentId);
+    }
+
+    @Override
+    public List<StudentChange> getChanges() {
+        if (deletedStudent == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(new StudentChange(studentId, deletedStudent, null));
+    }
+
     @Override
     public String getDescription() {
         return "Delete student: " + (deletedStudent != null ? deletedStudent.getName() : "Unknown");
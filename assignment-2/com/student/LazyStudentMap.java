@@ -0,0 +1,277 @@
+package com.student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Student map backed by a memory-mapped snapshot file.
+ *
+ * Opening only builds an id -> file offset index (an open-addressing table of
+ * ids and primitive offsets); a Student is decoded from the mapping when it
+ * is looked up. Changes made after opening live in an in-memory overlay, and
+ * snapshot records that were deleted or replaced are marked in the index,
+ * so the file itself is never modified.
+ */
+public class LazyStudentMap extends AbstractMap<String, Student> {
+    private static final long WINDOW = 1L << 30;
+    // Records are far smaller than this, so every record fits in one window
+    private static final long OVERLAP = 4L << 20;
+    private static final long GONE = -1;
+
+    private final MappedByteBuffer[] windows;
+    private final String[] keys;
+    private final long[] offsets;
+    private final int mask;
+    private int baseSize;
+    private int[] majors;
+    private final Map<String, Student> overlay = new HashMap<>();
+
+    private LazyStudentMap(MappedByteBuffer[] windows, String[] keys, long[] offsets, int baseSize) {
+        this.windows = windows;
+        this.keys = keys;
+        this.offsets = offsets;
+        this.mask = keys.length - 1;
+        this.baseSize = baseSize;
+    }
+
+    public static LazyStudentMap open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int windowCount = (int) Math.max(1, (size + WINDOW - 1) / WINDOW);
+            MappedByteBuffer[] windows = new MappedByteBuffer[windowCount];
+            for (int w = 0; w < windowCount; w++) {
+                long start = w * WINDOW;
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(size - start, WINDOW + OVERLAP));
+            }
+
+            long count = StudentCodec.readHeader(windows[0].duplicate(), file);
+            int capacity = Integer.highestOneBit((int) Math.max(2, Math.min(1 << 30, count * 2)) - 1) << 1;
+            String[] keys = new String[capacity];
+            long[] offsets = new long[capacity];
+            LazyStudentMap map = new LazyStudentMap(windows, keys, offsets, 0);
+
+            ByteBuffer dictionary = map.at(StudentCodec.HEADER_SIZE);
+            map.majors = StudentCodec.readDictionary(windows[0].duplicate(), dictionary);
+            long position = dictionary.position();
+            for (long i = 0; i < count; i++) {
+                ByteBuffer buffer = map.at(position);
+                int length = StudentCodec.peekLength(buffer);
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Student snapshot is truncated: " + file);
+                }
+                int prefix = StudentCodec.varIntSize(length);
+                String id = StudentCodec.getString(buffer);
+                if (id == null) {
+                    throw new IOException("Student record without an id in " + file);
+                }
+                int slot = map.slotFor(id);
+                if (keys[slot] == null) {
+                    keys[slot] = id;
+                    map.baseSize++;
+                }
+                offsets[slot] = position;
+                position += prefix + length;
+            }
+            return map;
+        }
+    }
+
+    @Override
+    public Student get(Object key) {
+        Student student = overlay.get(key);
+        if (student != null || !(key instanceof String)) {
+            return student;
+        }
+        int slot = slotFor((String) key);
+        return keys[slot] == null || offsets[slot] == GONE ? null : read(offsets[slot]);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (overlay.containsKey(key)) {
+            return true;
+        }
+        if (!(key instanceof String)) {
+            return false;
+        }
+        int slot = slotFor((String) key);
+        return keys[slot] != null && offsets[slot] != GONE;
+    }
+
+    @Override
+    public Student put(String key, Student value) {
+        Student previous = overlay.put(key, value);
+        if (previous == null) {
+            previous = retire(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public Student remove(Object key) {
+        Student previous = overlay.remove(key);
+        if (previous == null && key instanceof String) {
+            previous = retire((String) key);
+        }
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return baseSize + overlay.size();
+    }
+
+    @Override
+    public void clear() {
+        overlay.clear();
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = GONE;
+        }
+        baseSize = 0;
+    }
+
+    @Override
+    public Set<Entry<String, Student>> entrySet() {
+        return new AbstractSet<Entry<String, Student>>() {
+            @Override
+            public Iterator<Entry<String, Student>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return LazyStudentMap.this.size();
+            }
+        };
+    }
+
+    // Frozen copy for background snapshot writing; records decode on demand
+    public Iterable<Student> snapshot() {
+        long[] frozenOffsets = offsets.clone();
+        List<Student> changed = new ArrayList<>(overlay.values());
+        return () -> new Iterator<Student>() {
+            private final Iterator<Student> pending = changed.iterator();
+            private int slot = nextSlot(frozenOffsets, -1);
+
+            @Override
+            public boolean hasNext() {
+                return pending.hasNext() || slot < frozenOffsets.length;
+            }
+
+            @Override
+            public Student next() {
+                if (pending.hasNext()) {
+                    return pending.next();
+                }
+                if (slot >= frozenOffsets.length) {
+                    throw new NoSuchElementException();
+                }
+                Student student = read(frozenOffsets[slot]);
+                slot = nextSlot(frozenOffsets, slot);
+                return student;
+            }
+        };
+    }
+
+    // Marks the snapshot copy of a student as superseded; returns it if live
+    private Student retire(String key) {
+        int slot = slotFor(key);
+        if (keys[slot] == null || offsets[slot] == GONE) {
+            return null;
+        }
+        Student previous = read(offsets[slot]);
+        offsets[slot] = GONE;
+        baseSize--;
+        return previous;
+    }
+
+    private int nextSlot(long[] slots, int from) {
+        int slot = from + 1;
+        while (slot < slots.length && (keys[slot] == null || slots[slot] == GONE)) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private Student read(long offset) {
+        try {
+            return StudentCodec.decodeSnapshot(at(offset), majors);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt student record at offset " + offset, e);
+        }
+    }
+
+    private ByteBuffer at(long offset) {
+        int window = (int) (offset / WINDOW);
+        ByteBuffer buffer = windows[window].duplicate();
+        buffer.position((int) (offset - window * WINDOW));
+        return buffer;
+    }
+
+    private int slotFor(String id) {
+        int h = id.hashCode() * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (keys[slot] != null && !keys[slot].equals(id)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Student>> {
+        private final Iterator<Entry<String, Student>> pending = overlay.entrySet().iterator();
+        private int slot = nextSlot(offsets, -1);
+        private String lastKey;
+        private boolean lastFromOverlay;
+
+        @Override
+        public boolean hasNext() {
+            return pending.hasNext() || slot < offsets.length;
+        }
+
+        @Override
+        public Entry<String, Student> next() {
+            if (pending.hasNext()) {
+                Entry<String, Student> entry = pending.next();
+                lastKey = entry.getKey();
+                lastFromOverlay = true;
+                return entry;
+            }
+            if (slot >= offsets.length) {
+                throw new NoSuchElementException();
+            }
+            String key = keys[slot];
+            Student student = read(offsets[slot]);
+            slot = nextSlot(offsets, slot);
+            lastKey = key;
+            lastFromOverlay = false;
+            return new SimpleImmutableEntry<>(key, student);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            if (lastFromOverlay) {
+                pending.remove();
+            } else {
+                retire(lastKey);
+            }
+            lastKey = null;
+        }
+    }
+}
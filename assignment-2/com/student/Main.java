@@ -1,12 +1,27 @@
 package com.student;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class Main {
-    private static StudentManager manager = new StudentManager();
+    private static StudentManager manager;
     private static Scanner scanner = new Scanner(System.in);
+    private static final int PAGE_SIZE = 50;
 
     public static void main(String[] args) {
+        StoreOptions options = new StoreOptions();
+        for (String arg : args) {
+            if (arg.equals("--lazy")) {
+                options.lazyLoad(true);
+            } else if (arg.equals("--write-behind")) {
+                options.writeBehind(true);
+            }
+        }
+        manager = new StudentManager(options);
+
         while (true) {
             showMenu();
             int choice = getIntInput("Enter your choice: ");
@@ -28,7 +43,17 @@ public class Main {
                     listAllStudents();
                     break;
                 case 6:
+                    importStudents();
+                    break;
+                case 7:
+                    exportStudents();
+                    break;
+                case 8:
+                    showStatistics();
+                    break;
+                case 9:
                     System.out.println("Exiting program...");
+                    manager.close();
                     scanner.close();
                     return;
                 default:
@@ -44,7 +69,10 @@ public class Main {
         System.out.println("3. Delete an existing student");
         System.out.println("4. Undo the last operation");
         System.out.println("5. List all students");
-        System.out.println("6. Exit");
+        System.out.println("6. Import students from CSV/JSONL");
+        System.out.println("7. Export students to CSV/JSONL");
+        System.out.println("8. Show statistics by major");
+        System.out.println("9. Exit");
         System.out.println("==========================================");
     }
 
@@ -94,16 +122,82 @@ public class Main {
         manager.undoLastCommand();
     }
 
+    private static void showStatistics() {
+        System.out.println("\n--- Statistics by Major ---");
+        StudentAnalytics analytics = manager.analytics();
+        if (analytics.getCount() == 0) {
+            System.out.println("No students found.");
+            return;
+        }
+        analytics.byMajor().forEach((major, statistics) -> System.out.println(major + " - " + statistics));
+        System.out.println("All - " + analytics.overall());
+        System.out.println("Age histogram: " + analytics.ageHistogram());
+    }
+
     private static void listAllStudents() {
         System.out.println("\n--- All Students ---");
-        var students = manager.getAllStudents();
-        if (students.isEmpty()) {
+        if (manager.getStudentCount() == 0) {
             System.out.println("No students found.");
-        } else {
-            System.out.println("Total students: " + students.size());
-            for (Student student : students) {
-                System.out.println(student);
+            return;
+        }
+        System.out.println("Total students: " + manager.getStudentCount());
+        String sort = getStringInput("Sort by (1) ID, (2) name or (3) GPA [1]: ");
+        StudentOrder order = sort.equals("2") ? StudentOrder.NAME : sort.equals("3") ? StudentOrder.GPA : StudentOrder.ID;
+
+        // One write per page, built without String.format
+        StringBuilder out = new StringBuilder(PAGE_SIZE * 80);
+        String cursor = null;
+        do {
+            StudentPage page = manager.page(order, cursor, PAGE_SIZE);
+            out.setLength(0);
+            for (Student student : page.getStudents()) {
+                appendStudent(out, student).append(System.lineSeparator());
             }
+            System.out.print(out);
+            cursor = page.getNextCursor();
+        } while (cursor != null && getStringInput("Press Enter for more, or q to stop: ").isEmpty());
+    }
+
+    private static StringBuilder appendStudent(StringBuilder out, Student student) {
+        out.append("ID: ").append(student.getId())
+                .append(", Name: ").append(student.getName())
+                .append(", Age: ").append(student.getAge())
+                .append(", Major: ").append(student.getMajor())
+                .append(", GPA: ");
+        double gpa = student.getGpa();
+        if (!Double.isFinite(gpa)) {
+            return out.append(gpa);
+        }
+        // Rounds the shortest decimal form half up, as %.2f in Student.toString
+        // does, which also keeps the sign of values that round to zero
+        BigDecimal rounded = BigDecimal.valueOf(gpa).setScale(2, RoundingMode.HALF_UP);
+        if (rounded.signum() == 0 && Double.doubleToRawLongBits(gpa) < 0) {
+            out.append('-');
+        }
+        return out.append(rounded.toPlainString());
+    }
+
+    private static void importStudents() {
+        System.out.println("\n--- Import Students ---");
+        String path = getStringInput("Enter file to import (.csv or .jsonl): ");
+        StudentImporter importer = new StudentImporter(manager);
+        try {
+            importer.importFile(Paths.get(path));
+            System.out.println("Imported " + importer.getImported() + " students"
+                    + (importer.getSkipped() > 0 ? ", skipped " + importer.getSkipped() + " invalid records" : ""));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error importing students: " + e.getMessage());
+        }
+    }
+
+    private static void exportStudents() {
+        System.out.println("\n--- Export Students ---");
+        String path = getStringInput("Enter file to export to (.csv or .jsonl): ");
+        try {
+            long count = new StudentExporter(manager).exportFile(Paths.get(path));
+            System.out.println("Exported " + count + " students to " + path);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error exporting students: " + e.getMessage());
         }
     }
 
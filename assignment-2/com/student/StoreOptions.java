@@ -0,0 +1,124 @@
+package com.student;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Settings for how StudentManager stores its data. Setters return this so
+ * options can be chained: {@code new StoreOptions().syncMode(SyncMode.COMMIT)}.
+ */
+public class StoreOptions {
+    private Path directory = Paths.get(".");
+    private SyncMode syncMode = SyncMode.NONE;
+    private long compactionThreshold = 4L * 1024 * 1024;
+    private boolean lazyLoad;
+    private int undoMemoryLimit = 100;
+    private long undoFileLimit = 1024 * 1024;
+    private boolean writeBehind;
+    private long flushInterval = 200;
+    private long flushThreshold = 1024 * 1024;
+
+    // Independent copy, for callers that need to override a setting
+    public StoreOptions copy() {
+        StoreOptions copy = new StoreOptions();
+        copy.directory = directory;
+        copy.syncMode = syncMode;
+        copy.compactionThreshold = compactionThreshold;
+        copy.lazyLoad = lazyLoad;
+        copy.undoMemoryLimit = undoMemoryLimit;
+        copy.undoFileLimit = undoFileLimit;
+        copy.writeBehind = writeBehind;
+        copy.flushInterval = flushInterval;
+        copy.flushThreshold = flushThreshold;
+        return copy;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public StoreOptions directory(Path directory) {
+        this.directory = directory;
+        return this;
+    }
+
+    public SyncMode getSyncMode() {
+        return syncMode;
+    }
+
+    public StoreOptions syncMode(SyncMode syncMode) {
+        this.syncMode = syncMode;
+        return this;
+    }
+
+    public long getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    // Log size in bytes after which the log is folded into the snapshot
+    public StoreOptions compactionThreshold(long compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+        return this;
+    }
+
+    public boolean isLazyLoad() {
+        return lazyLoad;
+    }
+
+    // Load only an id -> offset index at startup and read students on demand
+    public StoreOptions lazyLoad(boolean lazyLoad) {
+        this.lazyLoad = lazyLoad;
+        return this;
+    }
+
+    public int getUndoMemoryLimit() {
+        return undoMemoryLimit;
+    }
+
+    // Commands kept in memory for undo before older ones spill to disk
+    public StoreOptions undoMemoryLimit(int undoMemoryLimit) {
+        this.undoMemoryLimit = undoMemoryLimit;
+        return this;
+    }
+
+    public long getUndoFileLimit() {
+        return undoFileLimit;
+    }
+
+    // Size in bytes of the ring file that spilled undo entries go to
+    public StoreOptions undoFileLimit(long undoFileLimit) {
+        this.undoFileLimit = undoFileLimit;
+        return this;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    // Return from writes once they are applied in memory and let a
+    // background thread commit the log
+    public StoreOptions writeBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+        return this;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    // Longest time in milliseconds a write-behind change waits to be written
+    public StoreOptions flushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    public long getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    // Unwritten log bytes that trigger a write-behind flush before the interval
+    public StoreOptions flushThreshold(long flushThreshold) {
+        this.flushThreshold = flushThreshold;
+        return this;
+    }
+}
@@ -0,0 +1,33 @@
+package com.student;
+
+/**
+ * Bounded cache that hands back one shared instance for strings that repeat,
+ * such as student names. Each string hashes to one slot and a newer string
+ * simply replaces an older one in the slot, so memory stays fixed however
+ * many distinct strings pass through. Slot reads and writes need no lock:
+ * a race at worst misses a chance to share.
+ */
+public final class StringDeduplicator {
+    private final String[] slots;
+    private final int mask;
+
+    public StringDeduplicator(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new String[size];
+        this.mask = size - 1;
+    }
+
+    public String dedupe(String value) {
+        if (value == null) {
+            return null;
+        }
+        int h = value.hashCode() * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & mask;
+        String cached = slots[slot];
+        if (value.equals(cached)) {
+            return cached;
+        }
+        slots[slot] = value;
+        return value;
+    }
+}
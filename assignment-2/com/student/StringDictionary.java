@@ -0,0 +1,45 @@
+package com.student;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each distinct string a small int code, starting at 0, so columns
+ * can store codes instead of references. Codes are never reused or removed.
+ * Lookups do not lock; only adding a new string does.
+ */
+public final class StringDictionary {
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            String[] current = values;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = value;
+            values = current;
+            codes.put(value, size);
+            return size++;
+        }
+    }
+
+    public String decode(int code) {
+        return values[code];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -1,20 +1,47 @@
 package com.student;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 public class Student implements Serializable {
     private static final long serialVersionUID = 1L;
+    // Serialized as the plain fields students were originally written with
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("id", String.class),
+        new ObjectStreamField("name", String.class),
+        new ObjectStreamField("age", int.class),
+        new ObjectStreamField("major", String.class),
+        new ObjectStreamField("gpa", double.class)
+    };
+
+    // Majors are few, so each student holds a code into one shared dictionary;
+    // names repeat often enough to share instances where possible
+    private static final StringDictionary MAJORS = new StringDictionary();
+    private static final StringDeduplicator NAMES = new StringDeduplicator(1 << 16);
+
     private String id;
     private String name;
     private int age;
-    private String major;
+    private int majorCode;
     private double gpa;
 
     public Student(String id, String name, int age, String major, double gpa) {
         this.id = id;
-        this.name = name;
+        this.name = NAMES.dedupe(name);
+        this.age = age;
+        this.majorCode = encodeMajor(major);
+        this.gpa = gpa;
+    }
+
+    // For decoders that already hold the code of the major in majors()
+    Student(String id, String name, int age, int majorCode, double gpa) {
+        this.id = id;
+        this.name = NAMES.dedupe(name);
         this.age = age;
-        this.major = major;
+        this.majorCode = majorCode;
         this.gpa = gpa;
     }
 
@@ -23,21 +50,51 @@ public class Student implements Serializable {
     public void setId(String id) { this.id = id; }
 
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) { this.name = NAMES.dedupe(name); }
 
     public int getAge() { return age; }
     public void setAge(int age) { this.age = age; }
 
-    public String getMajor() { return major; }
-    public void setMajor(String major) { this.major = major; }
+    public String getMajor() { return majorCode < 0 ? null : MAJORS.decode(majorCode); }
+    public void setMajor(String major) { this.majorCode = encodeMajor(major); }
 
     public double getGpa() { return gpa; }
     public void setGpa(double gpa) { this.gpa = gpa; }
 
+    // Code of the major in majors(), or -1 if there is none
+    int getMajorCode() { return majorCode; }
+
+    static StringDictionary majors() {
+        return MAJORS;
+    }
+
+    private static int encodeMajor(String major) {
+        return major == null ? -1 : MAJORS.encode(major);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("id", id);
+        fields.put("name", name);
+        fields.put("age", age);
+        fields.put("major", getMajor());
+        fields.put("gpa", gpa);
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        id = (String) fields.get("id", null);
+        name = NAMES.dedupe((String) fields.get("name", null));
+        age = fields.get("age", 0);
+        majorCode = encodeMajor((String) fields.get("major", null));
+        gpa = fields.get("gpa", 0.0);
+    }
+
     @Override
     public String toString() {
         return String.format("ID: %s, Name: %s, Age: %d, Major: %s, GPA: %.2f", 
-                           id, name, age, major, gpa);
+                           id, name, age, getMajor(), gpa);
     }
 
     @Override
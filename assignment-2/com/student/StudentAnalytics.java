@@ -0,0 +1,133 @@
+package com.student;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Reports over a point-in-time columnar copy of the students, taken with
+ * {@link StudentManager#analytics()}. Aggregations run as parallel streams
+ * over the primitive columns, without creating a Student per row.
+ */
+public class StudentAnalytics {
+    private static final int CHUNK = 1 << 14;
+    private static final int MAX_HISTOGRAM_RANGE = 1 << 16;
+
+    private final int[] ages;
+    private final double[] gpas;
+    private final int[] majorCodes;
+    private final StringDictionary majors;
+
+    StudentAnalytics(int[] ages, double[] gpas, int[] majorCodes, StringDictionary majors) {
+        this.ages = ages;
+        this.gpas = gpas;
+        this.majorCodes = majorCodes;
+        this.majors = majors;
+    }
+
+    public int getCount() {
+        return gpas.length;
+    }
+
+    public StudentStatistics overall() {
+        double[] sorted = gpas.clone();
+        Arrays.parallelSort(sorted);
+        return new StudentStatistics(sorted, Arrays.stream(gpas).parallel().sum(),
+                Arrays.stream(ages).parallel().asLongStream().sum());
+    }
+
+    // Statistics per major, sorted by major name
+    public SortedMap<String, StudentStatistics> byMajor() {
+        int groups = majors.size();
+        int[] offsets = new int[groups + 1];
+        // Students without a major (code -1) are left out of every group
+        for (int code : majorCodes) {
+            if (code >= 0) {
+                offsets[code + 1]++;
+            }
+        }
+        for (int i = 0; i < groups; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        // Scatter the GPAs so each major's values are contiguous
+        double[] grouped = new double[offsets[groups]];
+        long[] ageSums = new long[groups];
+        int[] next = Arrays.copyOf(offsets, groups);
+        for (int row = 0; row < gpas.length; row++) {
+            int code = majorCodes[row];
+            if (code < 0) {
+                continue;
+            }
+            grouped[next[code]++] = gpas[row];
+            ageSums[code] += ages[row];
+        }
+
+        StudentStatistics[] statistics = new StudentStatistics[groups];
+        IntStream.range(0, groups).parallel().filter(code -> offsets[code + 1] > offsets[code]).forEach(code -> {
+            double[] values = Arrays.copyOfRange(grouped, offsets[code], offsets[code + 1]);
+            Arrays.sort(values);
+            double sum = 0;
+            for (double value : values) {
+                sum += value;
+            }
+            statistics[code] = new StudentStatistics(values, sum, ageSums[code]);
+        });
+
+        SortedMap<String, StudentStatistics> result = new TreeMap<>();
+        for (int code = 0; code < groups; code++) {
+            if (statistics[code] != null) {
+                result.put(majors.decode(code), statistics[code]);
+            }
+        }
+        return result;
+    }
+
+    // Number of students of each age, for ages that occur
+    public SortedMap<Integer, Integer> ageHistogram() {
+        SortedMap<Integer, Integer> result = new TreeMap<>();
+        if (ages.length == 0) {
+            return result;
+        }
+        int min = Arrays.stream(ages).parallel().min().getAsInt();
+        int max = Arrays.stream(ages).parallel().max().getAsInt();
+        if ((long) max - min >= MAX_HISTOGRAM_RANGE) {
+            return sparseHistogram();
+        }
+        int chunks = (ages.length + CHUNK - 1) / CHUNK;
+        int[] counts = IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+            int[] local = new int[max - min + 1];
+            int end = Math.min(ages.length, (chunk + 1) * CHUNK);
+            for (int row = chunk * CHUNK; row < end; row++) {
+                local[ages[row] - min]++;
+            }
+            return local;
+        }).reduce((a, b) -> {
+            for (int i = 0; i < a.length; i++) {
+                a[i] += b[i];
+            }
+            return a;
+        }).get();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put(min + i, counts[i]);
+            }
+        }
+        return result;
+    }
+
+    // For age ranges too wide for a counting array: sort and count runs
+    private SortedMap<Integer, Integer> sparseHistogram() {
+        int[] sorted = ages.clone();
+        Arrays.parallelSort(sorted);
+        SortedMap<Integer, Integer> result = new TreeMap<>();
+        for (int start = 0, end; start < sorted.length; start = end) {
+            end = start + 1;
+            while (end < sorted.length && sorted[end] == sorted[start]) {
+                end++;
+            }
+            result.put(sorted[start], end - start);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+package com.student;
+
+/**
+ * One student record before and after a command ran. A null before means
+ * the command created the record, a null after means it deleted it.
+ */
+public final class StudentChange {
+    private final String studentId;
+    private final Student before;
+    private final Student after;
+
+    public StudentChange(String studentId, Student before, Student after) {
+        this.studentId = studentId;
+        this.before = before;
+        this.after = after;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public Student getBefore() {
+        return before;
+    }
+
+    public Student getAfter() {
+        return after;
+    }
+}
@@ -0,0 +1,407 @@
+package com.student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary encoding of Student records, used for the students.dat
+ * snapshot and for the records of the append-only log.
+ *
+ * A record is: varint record length, then id, name and major as varint
+ * length-prefixed UTF-8, age as a varint and GPA as an 8-byte double. A
+ * null name or major is written as length -1; the id may not be null. The
+ * snapshot file starts with a fixed header:
+ * <pre>
+ *   int   magic "STU1"
+ *   int   version
+ *   long  record count
+ *   int   CRC32C of everything after the header
+ *   int   number of majors in the dictionary (version 2)
+ * </pre>
+ * From version 2 the header is followed by a dictionary of majors as
+ * length-prefixed strings, and snapshot records store the major as a varint
+ * k: entry k - 1 of the dictionary, or 0 followed by the major itself.
+ * Log records always carry the major as a string.
+ *
+ * Encoding and decoding work directly on ByteBuffers (direct buffers for
+ * file I/O), with a fast path for ASCII strings.
+ */
+public final class StudentCodec {
+    public static final int MAGIC = 0x53545531;
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 24;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_STRING = 1 << 16;
+
+    private StudentCodec() {
+    }
+
+    public static void encode(ByteBuffer buffer, Student student) {
+        encode(buffer, student, -1);
+    }
+
+    // Majors with a code below dictionarySize are written as dictionary
+    // references; a negative dictionarySize writes every major as a string
+    private static void encode(ByteBuffer buffer, Student student, int dictionarySize) {
+        int start = buffer.position();
+        // Reserve the longest possible length prefix, then close the gap
+        buffer.position(start + 3);
+        putString(buffer, student.getId());
+        putString(buffer, student.getName());
+        putVarInt(buffer, student.getAge());
+        int code = student.getMajorCode();
+        if (dictionarySize < 0) {
+            putString(buffer, student.getMajor());
+        } else if (code >= 0 && code < dictionarySize) {
+            putVarInt(buffer, code + 1);
+        } else {
+            putVarInt(buffer, 0);
+            putString(buffer, student.getMajor());
+        }
+        buffer.putDouble(student.getGpa());
+        int end = buffer.position();
+        int length = end - start - 3;
+        int prefix = varIntSize(length);
+        buffer.position(start);
+        putVarInt(buffer, length);
+        if (prefix < 3) {
+            ByteBuffer body = buffer.duplicate();
+            body.limit(end).position(start + 3);
+            buffer.put(body);
+        } else {
+            buffer.position(end);
+        }
+    }
+
+    // Rejects students without an id or with a field too long to decode
+    // again; call before changing anything, since encode would fail part way
+    // through a record
+    public static void checkEncodable(Student student) {
+        if (student.getId() == null) {
+            throw new IllegalArgumentException("Student id is required");
+        }
+        checkLength(student.getId());
+        checkLength(student.getName());
+        checkLength(student.getMajor());
+    }
+
+    public static Student decode(ByteBuffer buffer) throws IOException {
+        getVarInt(buffer);
+        return decodeBody(buffer);
+    }
+
+    static Student decodeBody(ByteBuffer buffer) throws IOException {
+        return decodeBody(buffer, null);
+    }
+
+    // Decodes a snapshot record; majors maps dictionary entries to major
+    // codes, or is null for version 1 records
+    static Student decodeSnapshot(ByteBuffer buffer, int[] majors) throws IOException {
+        getVarInt(buffer);
+        return decodeBody(buffer, majors);
+    }
+
+    static Student decodeBody(ByteBuffer buffer, int[] majors) throws IOException {
+        String id = getString(buffer);
+        if (id == null) {
+            throw new IOException("Student record without an id");
+        }
+        String name = getString(buffer);
+        int age = getVarInt(buffer);
+        if (majors == null) {
+            String major = getString(buffer);
+            return new Student(id, name, age, major, buffer.getDouble());
+        }
+        int entry = getVarInt(buffer);
+        if (entry == 0) {
+            String major = getString(buffer);
+            return new Student(id, name, age, major, buffer.getDouble());
+        }
+        if (entry > majors.length) {
+            throw new IOException("Unknown major " + entry);
+        }
+        return new Student(id, name, age, majors[entry - 1], buffer.getDouble());
+    }
+
+    // Upper bound on the encoded size, for sizing buffers
+    public static int maxEncodedSize(Student student) {
+        return 3 + maxStringSize(student.getId()) + maxStringSize(student.getName()) + 5
+                + 1 + maxStringSize(student.getMajor()) + 8;
+    }
+
+    public static boolean isSnapshot(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) > 0) {
+                // keep reading
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    public static void write(Path file, Iterable<Student> students) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            CRC32C crc = new CRC32C();
+            long count = 0;
+            channel.position(HEADER_SIZE);
+            StringDictionary majors = Student.majors();
+            int entries = majors.size();
+            for (int code = 0; code < entries; code++) {
+                String major = majors.decode(code);
+                if (buffer.remaining() < maxStringSize(major)) {
+                    flush(channel, buffer, crc);
+                }
+                putString(buffer, major);
+            }
+            for (Student student : students) {
+                int needed = maxEncodedSize(student);
+                if (buffer.remaining() < needed) {
+                    flush(channel, buffer, crc);
+                    if (buffer.capacity() < needed) {
+                        buffer = ByteBuffer.allocateDirect(needed);
+                    }
+                }
+                encode(buffer, student, entries);
+                count++;
+            }
+            flush(channel, buffer, crc);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(count).putInt((int) crc.getValue()).putInt(entries).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+        }
+    }
+
+    public static Map<String, Student> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) > 0) {
+                // keep reading
+            }
+            header.flip();
+            long count = readHeader(header, file);
+            int checksum = header.getInt(16);
+            int[] majors = readsDictionary(header) ? new int[header.getInt(20)] : null;
+            int entries = 0;
+
+            Map<String, Student> students = new HashMap<>((int) Math.min(Integer.MAX_VALUE - 8, count * 4 / 3 + 1));
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            CRC32C crc = new CRC32C();
+            long decoded = 0;
+            while (decoded < count || (majors != null && entries < majors.length)) {
+                int read = channel.read(buffer);
+                buffer.flip();
+                while (majors != null && entries < majors.length) {
+                    int start = buffer.position();
+                    int length = peekLength(buffer);
+                    if (length < 0 || buffer.remaining() < length) {
+                        buffer.position(start);
+                        break;
+                    }
+                    buffer.position(start);
+                    majors[entries++] = Student.majors().encode(getMajor(buffer));
+                }
+                while ((majors == null || entries == majors.length) && decoded < count) {
+                    int start = buffer.position();
+                    int length = peekLength(buffer);
+                    if (length < 0 || buffer.remaining() < length) {
+                        buffer.position(start);
+                        break;
+                    }
+                    int end = buffer.position() + length;
+                    Student student = decodeBody(buffer, majors);
+                    if (buffer.position() != end) {
+                        throw new IOException("Corrupt student record in " + file);
+                    }
+                    students.put(student.getId(), student);
+                    decoded++;
+                }
+                ByteBuffer consumed = buffer.duplicate();
+                consumed.limit(buffer.position()).position(0);
+                crc.update(consumed);
+
+                if (read < 0 && buffer.position() == 0) {
+                    throw new IOException("Student snapshot is truncated: " + file);
+                }
+                if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                    // A single record is larger than the buffer
+                    ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                    larger.put(buffer);
+                    buffer = larger;
+                } else {
+                    buffer.compact();
+                }
+            }
+            if (buffer.position() > 0 || channel.position() < channel.size()) {
+                throw new IOException("Trailing data in student snapshot " + file);
+            }
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Student snapshot checksum mismatch: " + file);
+            }
+            return students;
+        }
+    }
+
+    static long readHeader(ByteBuffer header, Path file) throws IOException {
+        if (header.remaining() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a student snapshot: " + file);
+        }
+        int version = header.getInt(4);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported student snapshot version " + version);
+        }
+        return header.getLong(8);
+    }
+
+    // Version 1 snapshots have no dictionary of majors
+    static boolean readsDictionary(ByteBuffer header) {
+        return header.getInt(4) >= 2;
+    }
+
+    // Reads the dictionary that starts at the buffer's position and returns
+    // the major code of each entry, or null for a version 1 snapshot
+    static int[] readDictionary(ByteBuffer header, ByteBuffer buffer) throws IOException {
+        if (!readsDictionary(header)) {
+            return null;
+        }
+        int[] majors = new int[header.getInt(20)];
+        for (int i = 0; i < majors.length; i++) {
+            majors[i] = Student.majors().encode(getMajor(buffer));
+        }
+        return majors;
+    }
+
+    private static String getMajor(ByteBuffer buffer) throws IOException {
+        String major = getString(buffer);
+        if (major == null) {
+            throw new IOException("Null entry in the dictionary of majors");
+        }
+        return major;
+    }
+
+    // Reads the record length prefix; returns -1 if it is not complete yet
+    static int peekLength(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            putVarInt(buffer, -1);
+            return;
+        }
+        int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            checkLength(length);
+            putVarInt(buffer, length);
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            checkLength(bytes.length);
+            putVarInt(buffer, bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static void checkLength(String value) {
+        if (value == null) {
+            return;
+        }
+        // UTF-8 takes at most three bytes per char, so only long strings need counting
+        if (value.length() * 3 > MAX_STRING) {
+            checkLength(value.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    private static void checkLength(int length) {
+        if (length > MAX_STRING) {
+            throw new IllegalArgumentException("String of " + length + " bytes is longer than " + MAX_STRING);
+        }
+    }
+
+    // Returns null for a string written as null
+    static String getString(ByteBuffer buffer) throws IOException {
+        int length = getVarInt(buffer);
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > MAX_STRING || length > buffer.remaining()) {
+            throw new IOException("Corrupt string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int getVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt varint");
+    }
+
+    static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int maxStringSize(String value) {
+        return value == null ? 5 : 3 + value.length() * 3;
+    }
+}
@@ -0,0 +1,181 @@
+package com.student;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Round-trip test for StudentCodec. Encodes students whose record length
+ * straddles each varint length-prefix boundary, decodes them directly and
+ * through a reopened store, and checks that over-long strings and missing
+ * ids are rejected before anything is written. Null names and majors must
+ * survive the log, a compacted snapshot and JSON Lines.
+ *
+ * Usage: java com.student.StudentCodecTest
+ */
+public class StudentCodecTest {
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        // A 1-byte prefix holds lengths up to 127, a 2-byte one up to 16383
+        for (int boundary : new int[] {127, 16383}) {
+            for (int nameLength = boundary - 40; nameLength <= boundary + 10; nameLength++) {
+                roundTrip(student("s" + nameLength, nameLength));
+            }
+        }
+        roundTrip(student("s-max", 1 << 16));
+        roundTrip(new Student("s-utf8", "\u00e9".repeat(20_000), 20, "\u00c9tudes", 3.5));
+        roundTrip(new Student("s-null", null, 20, null, 3.5));
+
+        reopen();
+        rejectsLongStrings();
+        keepsNulls();
+
+        if (failures > 0) {
+            System.out.println(failures + " codec checks FAILED");
+            System.exit(1);
+        }
+        System.out.println("All codec checks passed");
+    }
+
+    private static void roundTrip(Student student) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(StudentCodec.maxEncodedSize(student) + 8);
+        StudentCodec.encode(buffer, student);
+        int written = buffer.position();
+        buffer.flip();
+        Student decoded = StudentCodec.decode(buffer);
+        check(buffer.position() == written, "decode consumed " + buffer.position() + " of "
+                + written + " bytes for " + student.getId());
+        check(same(student, decoded), "round trip changed " + student.getId());
+    }
+
+    private static void reopen() throws IOException {
+        Path directory = Files.createTempDirectory("students-codec");
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            StoreOptions options = new StoreOptions().directory(directory).compactionThreshold(Long.MAX_VALUE);
+            StudentManager manager = new StudentManager(options);
+            for (int nameLength = 16_340; nameLength <= 16_400; nameLength++) {
+                manager.addStudent(student("s" + nameLength, nameLength));
+            }
+            manager.close();
+
+            StudentManager reopened = new StudentManager(options);
+            for (int nameLength = 16_340; nameLength <= 16_400; nameLength++) {
+                String id = "s" + nameLength;
+                check(same(student(id, nameLength), reopened.getStudent(id)), "log replay lost " + id);
+            }
+            reopened.compact();
+            reopened.close();
+
+            StudentManager compacted = new StudentManager(options);
+            check(compacted.getStudentCount() == 61, "snapshot holds " + compacted.getStudentCount() + " students");
+            compacted.close();
+        } finally {
+            System.setOut(console);
+            delete(directory);
+        }
+    }
+
+    private static void rejectsLongStrings() throws IOException {
+        Student tooLong = student("s-long", (1 << 16) + 1);
+        try {
+            StudentCodec.encode(ByteBuffer.allocate(StudentCodec.maxEncodedSize(tooLong)), tooLong);
+            check(false, "encode accepted a name longer than the decoder allows");
+        } catch (IllegalArgumentException expected) {
+            // rejected as it should be
+        }
+
+        Path directory = Files.createTempDirectory("students-codec");
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            StoreOptions options = new StoreOptions().directory(directory);
+            StudentManager manager = new StudentManager(options);
+            try {
+                manager.addStudent(tooLong);
+                check(false, "manager accepted a name longer than the decoder allows");
+            } catch (IllegalArgumentException expected) {
+                check(manager.getStudent("s-long") == null, "rejected student is still in the store");
+            }
+            manager.close();
+            StudentManager reopened = new StudentManager(options);
+            check(reopened.getStudentCount() == 0, "rejected student reached the log");
+            reopened.close();
+        } finally {
+            System.setOut(console);
+            delete(directory);
+        }
+    }
+
+    private static void keepsNulls() throws IOException {
+        Student noMajor = new Student("s-no-major", "Amy", 20, null, 3.5);
+        Student noName = new Student("s-no-name", null, 21, "CS", 3.0);
+        StringBuilder json = new StringBuilder();
+        StudentFormat.JSONL.format(noMajor, json);
+        check(same(noMajor, StudentFormat.JSONL.parse(json.toString().trim())), "JSON lost a null major");
+
+        Path directory = Files.createTempDirectory("students-codec");
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            StoreOptions options = new StoreOptions().directory(directory);
+            StudentManager manager = new StudentManager(options);
+            manager.addStudent(noMajor);
+            manager.addStudent(noName);
+            try {
+                manager.addStudent(new Student(null, "Nobody", 20, "CS", 3.0));
+                check(false, "manager accepted a student without an id");
+            } catch (IllegalArgumentException expected) {
+                check(manager.getStudentCount() == 2, "student without an id is in the store");
+            }
+            manager.close();
+
+            StudentManager reopened = new StudentManager(options);
+            check(same(noMajor, reopened.getStudent(noMajor.getId())), "log replay lost a null major");
+            check(same(noName, reopened.getStudent(noName.getId())), "log replay lost a null name");
+            reopened.compact();
+            reopened.close();
+
+            for (boolean lazy : new boolean[] {false, true}) {
+                StudentManager compacted = new StudentManager(options.copy().lazyLoad(lazy));
+                check(same(noMajor, compacted.getStudent(noMajor.getId())), "snapshot lost a null major");
+                check(same(noName, compacted.getStudent(noName.getId())), "snapshot lost a null name");
+                compacted.close();
+            }
+        } finally {
+            System.setOut(console);
+            delete(directory);
+        }
+    }
+
+    private static Student student(String id, int nameLength) {
+        return new Student(id, "n".repeat(nameLength), 20, "CS", 3.25);
+    }
+
+    private static boolean same(Student expected, Student actual) {
+        return actual != null && expected.toString().equals(actual.toString())
+                && Objects.equals(expected.getName(), actual.getName())
+                && Objects.equals(expected.getMajor(), actual.getMajor());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            failures++;
+            System.out.println("FAILED: " + message);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.student;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar copy of the students held by a StudentManager: age, GPA and
+ * the student's major code in parallel primitive arrays, one row per student.
+ * A removed row is filled with the last row so the columns stay dense.
+ */
+public class StudentColumns {
+    private final Map<String, Integer> rows = new HashMap<>();
+    private String[] ids = new String[16];
+    private int[] ages = new int[16];
+    private double[] gpas = new double[16];
+    private int[] majorCodes = new int[16];
+    private int size;
+
+    public synchronized void add(Student student) {
+        Integer row = rows.get(student.getId());
+        if (row == null) {
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            rows.put(student.getId(), row);
+            ids[row] = student.getId();
+        }
+        ages[row] = student.getAge();
+        gpas[row] = student.getGpa();
+        majorCodes[row] = student.getMajorCode();
+    }
+
+    public synchronized void remove(Student student) {
+        Integer row = rows.remove(student.getId());
+        if (row == null) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            ages[row] = ages[last];
+            gpas[row] = gpas[last];
+            majorCodes[row] = majorCodes[last];
+            rows.put(ids[row], row);
+        }
+        ids[last] = null;
+    }
+
+    // Copies the columns so aggregation can run without holding the lock
+    public synchronized StudentAnalytics snapshot() {
+        return new StudentAnalytics(Arrays.copyOf(ages, size), Arrays.copyOf(gpas, size),
+                Arrays.copyOf(majorCodes, size), Student.majors());
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        gpas = Arrays.copyOf(gpas, capacity);
+        majorCodes = Arrays.copyOf(majorCodes, capacity);
+    }
+}
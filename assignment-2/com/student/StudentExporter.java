@@ -0,0 +1,96 @@
+package com.student;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams every student of a StudentManager to a CSV or JSON Lines file.
+ * Students are visited in place with {@link StudentManager#forEachStudent}
+ * and encoded through one reusable buffer, so memory use does not grow with
+ * the number of students.
+ */
+public class StudentExporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final StudentManager manager;
+
+    public StudentExporter(StudentManager manager) {
+        this.manager = manager;
+    }
+
+    public long exportFile(Path file) throws IOException {
+        return exportFile(file, StudentFormat.forFile(file));
+    }
+
+    public long exportFile(Path file, StudentFormat format) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = new Writer(channel);
+            StringBuilder line = new StringBuilder(128);
+            if (format == StudentFormat.CSV) {
+                writer.write(line.append(StudentFormat.CSV_HEADER).append('\n'));
+            }
+            long[] count = new long[1];
+            try {
+                manager.forEachStudent(student -> {
+                    line.setLength(0);
+                    format.format(student, line);
+                    writer.write(line);
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.finish();
+            return count[0];
+        }
+    }
+
+    private static final class Writer {
+        private final FileChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(CharSequence text) {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(chars, bytes, false);
+                if (result.isOverflow()) {
+                    drain();
+                } else {
+                    break;
+                }
+            }
+        }
+
+        void finish() throws IOException {
+            encoder.encode(CharBuffer.allocate(0), bytes, true);
+            encoder.flush(bytes);
+            drain();
+        }
+
+        private void drain() {
+            bytes.flip();
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bytes.clear();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.student;
+
+import java.nio.file.Path;
+
+/**
+ * Text formats for exchanging students with other systems: CSV with an
+ * {@code id,name,age,major,gpa} header (RFC 4180 quoting) and JSON Lines
+ * with one flat object per line. A null name or major is written as JSON
+ * {@code null}, or as an empty CSV field since CSV has no null.
+ */
+public enum StudentFormat {
+    CSV,
+    JSONL;
+
+    public static final String CSV_HEADER = "id,name,age,major,gpa";
+
+    public static StudentFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return JSONL;
+        }
+        throw new IllegalArgumentException("Unknown file type (use .csv or .jsonl): " + file);
+    }
+
+    public boolean isHeader(String record) {
+        return this == CSV && record.trim().equalsIgnoreCase(CSV_HEADER);
+    }
+
+    public Student parse(String record) {
+        return this == CSV ? parseCsv(record) : parseJson(record);
+    }
+
+    public void format(Student student, StringBuilder out) {
+        if (this == CSV) {
+            csvField(out, student.getId()).append(',');
+            csvField(out, student.getName()).append(',');
+            out.append(student.getAge()).append(',');
+            csvField(out, student.getMajor()).append(',');
+            out.append(student.getGpa());
+        } else {
+            out.append("{\"id\":");
+            jsonString(out, student.getId()).append(",\"name\":");
+            jsonString(out, student.getName()).append(",\"age\":").append(student.getAge()).append(",\"major\":");
+            jsonString(out, student.getMajor()).append(",\"gpa\":").append(student.getGpa()).append('}');
+        }
+        out.append('\n');
+    }
+
+    private static Student parseCsv(String record) {
+        String[] fields = new String[5];
+        StringBuilder field = new StringBuilder();
+        int count = 0;
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (count == 4) {
+                    throw new IllegalArgumentException("Too many fields");
+                }
+                fields[count++] = field.toString();
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (count != 4) {
+            throw new IllegalArgumentException("Expected 5 fields, got " + (count + 1));
+        }
+        fields[4] = field.toString();
+        return student(fields[0], fields[1], fields[2].trim(), fields[3], fields[4].trim());
+    }
+
+    private static Student parseJson(String record) {
+        String id = null;
+        String name = null;
+        String age = null;
+        String major = null;
+        String gpa = null;
+        boolean hasName = false;
+        boolean hasMajor = false;
+        JsonCursor in = new JsonCursor(record);
+        in.expect('{');
+        if (!in.consume('}')) {
+            do {
+                String key = in.string();
+                in.expect(':');
+                String value = in.value();
+                switch (key) {
+                    case "id": id = value; break;
+                    case "name": name = value; hasName = true; break;
+                    case "age": age = value; break;
+                    case "major": major = value; hasMajor = true; break;
+                    case "gpa": gpa = value; break;
+                    default: break;
+                }
+            } while (in.consume(','));
+            in.expect('}');
+        }
+        if (!hasName || !hasMajor) {
+            throw new IllegalArgumentException("Missing field");
+        }
+        return student(id, name, age, major, gpa);
+    }
+
+    private static Student student(String id, String name, String age, String major, String gpa) {
+        if (id == null || id.isEmpty() || age == null || gpa == null) {
+            throw new IllegalArgumentException("Missing field");
+        }
+        return new Student(id, name, Integer.parseInt(age), major, Double.parseDouble(gpa));
+    }
+
+    private static StringBuilder csvField(StringBuilder out, String value) {
+        if (value == null) {
+            return out;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return out.append(value);
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    private static StringBuilder jsonString(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"');
+    }
+
+    // Just enough JSON to read one flat object of strings and numbers
+    private static final class JsonCursor {
+        private final String text;
+        private int position;
+
+        JsonCursor(String text) {
+            this.text = text;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw new IllegalArgumentException("Expected '" + c + "' at " + position);
+            }
+        }
+
+        boolean consume(char c) {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        String value() {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == '"') {
+                return string();
+            }
+            int start = position;
+            while (position < text.length() && ",}] \t".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            return literal.equals("null") ? null : literal;
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escape = text.charAt(position++);
+                switch (escape) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw new IllegalArgumentException("Bad unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default: sb.append(escape);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string");
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
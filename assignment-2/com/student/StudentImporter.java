@@ -0,0 +1,193 @@
+package com.student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams students from a CSV or JSON Lines file into a StudentManager.
+ *
+ * Three stages run concurrently, connected by small bounded queues: a reader
+ * thread decodes the file through a FileChannel into record strings, a
+ * parser thread turns them into Students, and the calling thread applies
+ * each parsed batch with one log commit. Memory use is bounded by the queue
+ * sizes, not by the file. Imported students are upserted and are not added
+ * to the undo history.
+ */
+public class StudentImporter {
+    private static final int BATCH = 4096;
+    private static final int QUEUE_DEPTH = 8;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final StudentManager manager;
+    private long imported;
+    private long skipped;
+
+    public StudentImporter(StudentManager manager) {
+        this.manager = manager;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void importFile(Path file) throws IOException {
+        importFile(file, StudentFormat.forFile(file));
+    }
+
+    public void importFile(Path file, StudentFormat format) throws IOException {
+        BlockingQueue<List<String>> records = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+        BlockingQueue<List<Student>> students = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+        ExecutorService stages = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "student-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> reader = stages.submit(() -> {
+                try {
+                    read(file, format, records);
+                } finally {
+                    records.put(new ArrayList<>());
+                }
+                return null;
+            });
+            Future<Long> parser = stages.submit(() -> {
+                try {
+                    return parse(format, records, students);
+                } finally {
+                    students.put(new ArrayList<>());
+                }
+            });
+
+            while (true) {
+                List<Student> batch = students.take();
+                if (batch.isEmpty()) {
+                    break;
+                }
+                manager.upsertAll(batch);
+                imported += batch.size();
+            }
+            reader.get();
+            skipped += parser.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Import failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            stages.shutdownNow();
+        }
+    }
+
+    // Splits the decoded text into records; CSV newlines inside quotes are kept
+    private static void read(Path file, StudentFormat format, BlockingQueue<List<String>> out)
+            throws IOException, InterruptedException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        StringBuilder record = new StringBuilder();
+        List<String> batch = new ArrayList<>(BATCH);
+        boolean quoted = false;
+        boolean first = true;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(bytes) < 0;
+                bytes.flip();
+                decoder.decode(bytes, chars, eof);
+                if (eof) {
+                    decoder.flush(chars);
+                }
+                bytes.compact();
+                chars.flip();
+                while (chars.hasRemaining()) {
+                    char c = chars.get();
+                    if (first && c == '\uFEFF') {
+                        continue;
+                    }
+                    first = false;
+                    if (c == '"' && format == StudentFormat.CSV) {
+                        quoted = !quoted;
+                    }
+                    if (c == '\n' && !quoted) {
+                        emit(record, format, batch, out);
+                        batch = batch.size() >= BATCH ? flush(batch, out) : batch;
+                    } else {
+                        record.append(c);
+                    }
+                }
+                chars.clear();
+            }
+        }
+        emit(record, format, batch, out);
+        if (!batch.isEmpty()) {
+            out.put(batch);
+        }
+    }
+
+    private static void emit(StringBuilder record, StudentFormat format, List<String> batch,
+                             BlockingQueue<List<String>> out) {
+        int length = record.length();
+        if (length > 0 && record.charAt(length - 1) == '\r') {
+            record.setLength(length - 1);
+        }
+        String text = record.toString();
+        record.setLength(0);
+        if (!text.trim().isEmpty() && !format.isHeader(text)) {
+            batch.add(text);
+        }
+    }
+
+    private static List<String> flush(List<String> batch, BlockingQueue<List<String>> out)
+            throws InterruptedException {
+        out.put(batch);
+        return new ArrayList<>(BATCH);
+    }
+
+    private static long parse(StudentFormat format, BlockingQueue<List<String>> in,
+                              BlockingQueue<List<Student>> out) throws InterruptedException {
+        long skipped = 0;
+        while (true) {
+            List<String> records = in.take();
+            if (records.isEmpty()) {
+                return skipped;
+            }
+            List<Student> students = new ArrayList<>(records.size());
+            for (String record : records) {
+                try {
+                    students.add(format.parse(record));
+                } catch (IllegalArgumentException e) {
+                    skipped++;
+                }
+            }
+            if (!students.isEmpty()) {
+                out.put(students);
+            }
+        }
+    }
+}
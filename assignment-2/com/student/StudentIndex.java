@@ -0,0 +1,109 @@
+package com.student;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over the students held by a StudentManager: a hash
+ * index on major and sorted indexes on GPA and age, each mapping a value to
+ * the ids of the students that have it.
+ *
+ * {@link #candidates(StudentQuery)} picks whichever index narrows the query
+ * down to the fewest ids; the caller still checks the remaining criteria.
+ */
+public class StudentIndex {
+    private final Map<String, Set<String>> byMajor = new HashMap<>();
+    private final NavigableMap<Double, Set<String>> byGpa = new TreeMap<>();
+    private final NavigableMap<Integer, Set<String>> byAge = new TreeMap<>();
+
+    public synchronized void add(Student student) {
+        String id = student.getId();
+        byMajor.computeIfAbsent(student.getMajor(), k -> new HashSet<>()).add(id);
+        byGpa.computeIfAbsent(student.getGpa(), k -> new HashSet<>()).add(id);
+        byAge.computeIfAbsent(student.getAge(), k -> new HashSet<>()).add(id);
+    }
+
+    public synchronized void remove(Student student) {
+        String id = student.getId();
+        removeFrom(byMajor, student.getMajor(), id);
+        removeFrom(byGpa, student.getGpa(), id);
+        removeFrom(byAge, student.getAge(), id);
+    }
+
+    /**
+     * Ids that may match the query, taken from the most selective index, or
+     * null if the query has no indexed criterion.
+     */
+    public synchronized Collection<String> candidates(StudentQuery query) {
+        if (isEmptyRange(query)) {
+            return Collections.emptyList();
+        }
+        Collection<Set<String>> best = null;
+        long bestSize = Long.MAX_VALUE;
+
+        if (query.getMajor() != null) {
+            Set<String> ids = byMajor.get(query.getMajor());
+            best = ids == null ? Collections.emptyList() : Collections.singletonList(ids);
+            bestSize = ids == null ? 0 : ids.size();
+        }
+        if (query.hasGpaRange() && bestSize > 0) {
+            Collection<Set<String>> range = byGpa.subMap(query.getMinGpa(), query.isMinGpaInclusive(),
+                    query.getMaxGpa(), true).values();
+            long size = sizeOf(range, bestSize);
+            if (size < bestSize) {
+                best = range;
+                bestSize = size;
+            }
+        }
+        if (query.hasAgeRange() && bestSize > 0) {
+            Collection<Set<String>> range = byAge.subMap(query.getMinAge(), true,
+                    query.getMaxAge(), true).values();
+            long size = sizeOf(range, bestSize);
+            if (size < bestSize) {
+                best = range;
+                bestSize = size;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        List<String> ids = new ArrayList<>((int) Math.min(bestSize, Integer.MAX_VALUE));
+        for (Set<String> set : best) {
+            ids.addAll(set);
+        }
+        return ids;
+    }
+
+    // subMap rejects ranges whose start lies past their end
+    private static boolean isEmptyRange(StudentQuery query) {
+        int gpa = Double.compare(query.getMinGpa(), query.getMaxGpa());
+        return gpa > 0 || (gpa == 0 && !query.isMinGpaInclusive()) || query.getMinAge() > query.getMaxAge();
+    }
+
+    // Counts ids in a range, giving up once it cannot beat the current best
+    private static long sizeOf(Collection<Set<String>> range, long limit) {
+        long size = 0;
+        for (Set<String> ids : range) {
+            size += ids.size();
+            if (size >= limit) {
+                break;
+            }
+        }
+        return size;
+    }
+
+    private static <K> void removeFrom(Map<K, Set<String>> index, K key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.student;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for {@link StudentServer}: runs many concurrent clients on
+ * localhost, each sending a mix of reads, updates, adds and deletes for
+ * random ids, and reports requests/sec with p50/p99 latency.
+ *
+ * Usage: java com.student.StudentLoadClient [port] [clients] [requests] [ids]
+ */
+public class StudentLoadClient {
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int ids = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        String base = "http://localhost:" + port;
+        // One thread per client, each blocked in send() most of the time
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long[][] latencies = new long[clients][];
+        LongAdder errors = new LongAdder();
+        CountDownLatch done = new CountDownLatch(clients);
+        SplittableRandom seed = new SplittableRandom();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int slot = c;
+            SplittableRandom random = seed.split();
+            executor.execute(() -> {
+                try {
+                    latencies[slot] = runClient(client, base, requests, ids, random, errors);
+                } catch (RuntimeException e) {
+                    errors.increment();
+                    latencies[slot] = new long[0];
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(all);
+        double seconds = elapsed / 1e9;
+        System.out.println(clients + " clients, " + all.length + " requests in "
+                + String.format("%.3f", seconds) + " s ("
+                + String.format("%.0f", all.length / seconds) + " requests/sec), p50 "
+                + String.format("%.2f", percentile(all, 50) / 1e6) + " ms, p99 "
+                + String.format("%.2f", percentile(all, 99) / 1e6) + " ms, "
+                + errors.sum() + " errors");
+    }
+
+    private static long[] runClient(HttpClient client, String base, int requests, int ids,
+                                    SplittableRandom random, LongAdder errors) {
+        long[] latencies = new long[requests];
+        int completed = 0;
+        for (int i = 0; i < requests; i++) {
+            String id = "s" + random.nextInt(ids);
+            int op = random.nextInt(10);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + "/students/" + id));
+            if (op < 5) {
+                request.GET();
+            } else if (op < 8) {
+                request.PUT(HttpRequest.BodyPublishers.ofString(body(id, random)));
+            } else if (op < 9) {
+                request = HttpRequest.newBuilder(URI.create(base + "/students"))
+                        .POST(HttpRequest.BodyPublishers.ofString(body(id, random)));
+            } else {
+                request.DELETE();
+            }
+            long begin = System.nanoTime();
+            try {
+                int status = client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                // A read or delete of an id nobody has added yet is a 404
+                if (status >= 400 && status != 404) {
+                    errors.increment();
+                }
+            } catch (IOException | RuntimeException e) {
+                errors.increment();
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            latencies[completed++] = System.nanoTime() - begin;
+        }
+        return Arrays.copyOf(latencies, completed);
+    }
+
+    private static String body(String id, SplittableRandom random) {
+        return "{\"id\":\"" + id + "\",\"name\":\"Student " + id + "\",\"age\":" + (18 + random.nextInt(10))
+                + ",\"major\":\"Major" + random.nextInt(20) + "\",\"gpa\":" + random.nextInt(401) / 100.0 + "}";
+    }
+
+    private static long percentile(long[] sorted, double percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100 * sorted.length);
+        return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+    }
+}
@@ -0,0 +1,234 @@
+package com.student;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of student mutations.
+ *
+ * Every add/update is a PUT record holding the whole student and every
+ * delete is a DELETE record holding the id, so the cost of a write does not
+ * depend on how many students exist. Records are buffered by
+ * {@link #append} and written by {@link #commit}; concurrent committers are
+ * grouped so that one write (and one fsync in {@link SyncMode#COMMIT}) covers
+ * everything appended before it.
+ *
+ * Record layout: int payload length, int CRC32 of the payload, then the
+ * payload: an op byte followed by a {@link StudentCodec} record (PUT) or
+ * the length-prefixed id (DELETE).
+ */
+public class StudentLog implements Closeable {
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER = 8;
+
+    private final FileChannel channel;
+    private final SyncMode syncMode;
+    private final Object writeLock = new Object();
+    // Records are encoded outside the log's monitor, each thread in its own buffer
+    private final ThreadLocal<RecordBuffer> records = ThreadLocal.withInitial(RecordBuffer::new);
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(8192);
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream(8192);
+    private long appended;
+    private long committed;
+    private long recordCount;
+    private long size;
+
+    public StudentLog(Path file, SyncMode syncMode) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.syncMode = syncMode;
+        this.size = channel.size();
+    }
+
+    public void appendPut(Student student) {
+        RecordBuffer record = records.get();
+        StudentCodec.encode(record.start(1 + StudentCodec.maxEncodedSize(student)).put(PUT), student);
+        append(record.finish());
+    }
+
+    public void appendDelete(String studentId) {
+        RecordBuffer record = records.get();
+        StudentCodec.putString(record.start(4 + studentId.length() * 3).put(DELETE), studentId);
+        append(record.finish());
+    }
+
+    private synchronized void append(ByteBuffer record) {
+        pending.write(record.array(), 0, record.limit());
+        appended++;
+        recordCount++;
+    }
+
+    private static final class RecordBuffer {
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocate(HEADER + 256);
+
+        ByteBuffer start(int maxPayload) {
+            if (buffer.capacity() < HEADER + maxPayload) {
+                buffer = ByteBuffer.allocate(HEADER + maxPayload);
+            }
+            buffer.clear().position(HEADER);
+            return buffer;
+        }
+
+        // Fills in the header; the record is then buffer[0, limit)
+        ByteBuffer finish() {
+            int length = buffer.position() - HEADER;
+            crc.reset();
+            crc.update(buffer.array(), HEADER, length);
+            buffer.putInt(0, length).putInt(4, (int) crc.getValue());
+            buffer.limit(HEADER + length);
+            return buffer;
+        }
+    }
+
+    // Writes everything appended so far; returns once it is in the log
+    public void commit() throws IOException {
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        synchronized (writeLock) {
+            if (committed >= target) {
+                // Another thread's group commit already covered our records
+                return;
+            }
+            ByteArrayOutputStream batch;
+            long upTo;
+            synchronized (this) {
+                batch = pending;
+                pending = spare;
+                spare = batch;
+                upTo = appended;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+            try {
+                // Written at the end of what has been committed, so a retry
+                // overwrites whatever part of a failed write reached the file
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, size + buffer.position());
+                }
+                if (syncMode == SyncMode.COMMIT) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    // Keep the batch, ahead of anything appended meanwhile, for the next commit
+                    pending.writeTo(batch);
+                    pending.reset();
+                    spare = pending;
+                    pending = batch;
+                }
+                throw e;
+            }
+            batch.reset();
+            size += buffer.limit();
+            committed = upTo;
+        }
+    }
+
+    // Bytes appended but not yet written by commit()
+    public synchronized int pendingBytes() {
+        return pending.size();
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    public long size() {
+        synchronized (writeLock) {
+            return size;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            commit();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Applies every intact record of the log to the map, stops at the first
+     * torn, corrupt or undecodable record and cuts the file back to the
+     * last good one.
+     */
+    public static long replay(Path file, Map<String, Student> students) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long valid = 0;
+        long count = 0;
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(
+                     Channels.newInputStream(channel), 1 << 16))) {
+            long fileSize = channel.size();
+            while (valid + HEADER <= fileSize) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || valid + HEADER + length > fileSize) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                if (!apply(payload, students)) {
+                    break;
+                }
+                valid += HEADER + length;
+                count++;
+            }
+            if (valid < fileSize) {
+                channel.truncate(valid);
+            }
+        }
+        return count;
+    }
+
+    // Applies one record; returns false, changing nothing, if it does not decode
+    private static boolean apply(byte[] payload, Map<String, Student> students) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        try {
+            byte op = in.get();
+            if (op == PUT) {
+                Student student = StudentCodec.decode(in);
+                if (in.hasRemaining()) {
+                    return false;
+                }
+                students.put(student.getId(), student);
+            } else if (op == DELETE) {
+                String studentId = StudentCodec.getString(in);
+                if (studentId == null || in.hasRemaining()) {
+                    return false;
+                }
+                students.remove(studentId);
+            } else {
+                return false;
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -1,35 +1,82 @@
 package com.student;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 public class StudentManager {
     private Map<String, Student> students;
-    private List<Command> commandHistory;
+    private UndoHistory commandHistory;
     private static final String FILE_NAME = "students.dat";
+    private static final String LOG_FILE = "students.log";
+    private static final String OLD_LOG_FILE = "students.log.old";
+    private static final String UNDO_FILE = "students.undo";
+
+    private final StoreOptions options;
+    private final Path dataFile;
+    private final Path logFile;
+    private final Path oldLogFile;
+    private volatile StudentLog log;
+    private final Object flushLock = new Object();
+    private final Object flushSignal = new Object();
+    private boolean flushRequested;
+    private volatile boolean closing;
+    private Thread flusher;
+    private Thread shutdownHook;
+    private int commandDepth;
+    private ExecutorService compactor;
+    private Future<?> compaction;
+    private volatile StudentIndex index;
+    private volatile StudentColumns columns;
+    private volatile StudentSortIndex sortIndex;
+    private int reservedCapacity;
 
     public StudentManager() {
+        this(new StoreOptions());
+    }
+
+    public StudentManager(StoreOptions options) {
+        this.options = options;
+        this.dataFile = options.getDirectory().resolve(FILE_NAME);
+        this.logFile = options.getDirectory().resolve(LOG_FILE);
+        this.oldLogFile = options.getDirectory().resolve(OLD_LOG_FILE);
         students = new HashMap<>();
-        commandHistory = new ArrayList<>();
+        commandHistory = new UndoHistory(this, options.getDirectory().resolve(UNDO_FILE),
+                options.getUndoMemoryLimit(), options.getUndoFileLimit());
         loadStudents();
+        students = prepareMap(students);
+        openLog();
+        if (options.isWriteBehind()) {
+            startFlusher();
+        }
     }
 
     public void addStudent(Student student) {
-        students.put(student.getId(), student);
-        saveStudents();
+        StudentCodec.checkEncodable(student);
+        reindex(students.put(student.getId(), student), student);
+        logPut(student);
     }
 
     public void removeStudent(String studentId) {
-        students.remove(studentId);
-        saveStudents();
+        reindex(students.remove(studentId), null);
+        logDelete(studentId);
     }
 
     public void updateStudent(Student student) {
-        students.put(student.getId(), student);
-        saveStudents();
+        StudentCodec.checkEncodable(student);
+        reindex(students.put(student.getId(), student), student);
+        logPut(student);
     }
 
     public Student getStudent(String studentId) {
@@ -40,38 +87,421 @@ public class StudentManager {
         return new ArrayList<>(students.values());
     }
 
+    // Visits every student in place, without copying them into a list first
+    public void forEachStudent(Consumer<Student> action) {
+        for (Student student : students.values()) {
+            action.accept(student);
+        }
+    }
+
+    public int getStudentCount() {
+        return students.size();
+    }
+
+    // Adds all students as a single undoable batch with one log commit
+    public void bulkLoad(Collection<Student> batch) {
+        BatchCommand command = new BatchCommand(this);
+        for (Student student : batch) {
+            command.add(student);
+        }
+        executeCommand(command);
+    }
+
+    // Adds or replaces each student with one log commit and no history entry
+    public void upsertAll(Collection<Student> batch) {
+        ensureCapacity(batch.size());
+        enterCommand();
+        try {
+            for (Student student : batch) {
+                updateStudent(student);
+            }
+        } finally {
+            exitCommand();
+        }
+        commit();
+    }
+
+    // Grows the map once up front instead of rehashing during a large batch.
+    // Capacity at least doubles, so the copies cost amortised O(1) per student
+    public void ensureCapacity(int additional) {
+        if (!(students instanceof HashMap)) {
+            return;
+        }
+        long needed = (long) students.size() + additional;
+        if (needed <= reservedCapacity) {
+            return;
+        }
+        long reserved = Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * Math.max(students.size(), reservedCapacity)));
+        Map<String, Student> resized = new HashMap<>((int) Math.min(Integer.MAX_VALUE - 8, reserved * 4 / 3 + 1));
+        resized.putAll(students);
+        students = resized;
+        reservedCapacity = (int) reserved;
+    }
+
+    // Answers from the most selective secondary index, falling back to a scan
+    public List<Student> query(StudentQuery query) {
+        List<Student> result = new ArrayList<>();
+        Collection<String> candidates = index().candidates(query);
+        if (candidates == null) {
+            for (Student student : students.values()) {
+                if (query.matches(student)) {
+                    result.add(student);
+                }
+            }
+            return result;
+        }
+        for (String id : candidates) {
+            Student student = students.get(id);
+            if (student != null && query.matches(student)) {
+                result.add(student);
+            }
+        }
+        return result;
+    }
+
+    // Up to pageSize students after the cursor from the previous page, or
+    // from the start when the cursor is null
+    public StudentPage page(StudentOrder order, String cursor, int pageSize) {
+        return sortIndex().page(order, cursor, pageSize);
+    }
+
+    // Point-in-time columnar copy of age, GPA and major for reports
+    public StudentAnalytics analytics() {
+        return columns().snapshot();
+    }
+
     public void executeCommand(Command command) {
-        command.execute();
-        commandHistory.add(command);
-        saveStudents();
+        enterCommand();
+        try {
+            command.execute();
+        } finally {
+            exitCommand();
+        }
+        recordCommand(command);
+        commit();
     }
 
     public void undoLastCommand() {
-        if (!commandHistory.isEmpty()) {
-            Command lastCommand = commandHistory.remove(commandHistory.size() - 1);
-            lastCommand.undo();
-            saveStudents();
+        Runnable lastUndo = takeLastUndo();
+        if (lastUndo != null) {
+            enterCommand();
+            try {
+                lastUndo.run();
+            } finally {
+                exitCommand();
+            }
+            commit();
+        }
+    }
+
+    // Folds the log into a fresh snapshot on a background thread
+    public void compact() {
+        if ((compaction != null && !compaction.isDone()) || Files.exists(oldLogFile)) {
+            return;
+        }
+        synchronized (flushLock) {
+            try {
+                log.close();
+                Files.move(logFile, oldLogFile, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.out.println("Error compacting student data: " + e.getMessage());
+            } finally {
+                openLog();
+            }
+        }
+        if (!Files.exists(oldLogFile)) {
+            return;
+        }
+
+        Iterable<Student> copy = snapshot();
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "student-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        compaction = compactor.submit(() -> {
+            try {
+                saveStudents(copy);
+                Files.deleteIfExists(oldLogFile);
+            } catch (IOException e) {
+                System.out.println("Error compacting student data: " + e.getMessage());
+            }
+        });
+    }
+
+    // Returns once every change made so far is written to the log
+    public void flush() {
+        synchronized (flushLock) {
+            try {
+                log.commit();
+            } catch (IOException e) {
+                System.out.println("Error saving student data: " + e.getMessage());
+            }
+        }
+    }
+
+    // Also serves the shutdown hook, which must wait for a close in progress
+    public synchronized void close() {
+        if (closing) {
+            return;
+        }
+        synchronized (flushSignal) {
+            closing = true;
+            flushSignal.notifyAll();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            removeShutdownHook();
+        }
+        commandHistory.close();
+        awaitCompaction();
+        if (compactor != null) {
+            compactor.shutdown();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.out.println("Error saving student data: " + e.getMessage());
+        }
+    }
+
+    // Writes the log every flush interval, or sooner once enough is pending
+    private void startFlusher() {
+        flusher = new Thread(() -> {
+            while (!closing) {
+                synchronized (flushSignal) {
+                    if (!flushRequested && !closing) {
+                        try {
+                            flushSignal.wait(Math.max(1, options.getFlushInterval()));
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                    flushRequested = false;
+                }
+                flush();
+            }
+        }, "student-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        // An orderly exit without close() must not lose acknowledged writes
+        shutdownHook = new Thread(this::close, "student-flusher-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private void requestFlush() {
+        synchronized (flushSignal) {
+            flushRequested = true;
+            flushSignal.notifyAll();
+        }
+    }
+
+    private void removeShutdownHook() {
+        if (Thread.currentThread() == shutdownHook) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down; the hook is running or has run
+        }
+    }
+
+    private void awaitCompaction() {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Error compacting student data: " + e.getCause().getMessage());
+        }
+    }
+
+    // Hook for subclasses that need a different map implementation
+    protected Map<String, Student> prepareMap(Map<String, Student> loaded) {
+        return loaded;
+    }
+
+    // Writes made while a command runs are committed once when it finishes
+    protected void enterCommand() {
+        commandDepth++;
+    }
+
+    protected void exitCommand() {
+        commandDepth--;
+    }
+
+    protected boolean inCommand() {
+        return commandDepth > 0;
+    }
+
+    protected void recordCommand(Command command) {
+        commandHistory.push(command);
+    }
+
+    protected Runnable takeLastUndo() {
+        return commandHistory.pop();
+    }
+
+    protected void buildIndexes() {
+        index();
+        columns();
+        sortIndex().buildAll();
+    }
+
+    // Indexes are built on first use, so startup does not pay for them
+    private StudentIndex index() {
+        if (index == null) {
+            StudentIndex built = new StudentIndex();
+            for (Student student : students.values()) {
+                built.add(student);
+            }
+            index = built;
+        }
+        return index;
+    }
+
+    private StudentColumns columns() {
+        if (columns == null) {
+            StudentColumns built = new StudentColumns();
+            for (Student student : students.values()) {
+                built.add(student);
+            }
+            columns = built;
+        }
+        return columns;
+    }
+
+    private StudentSortIndex sortIndex() {
+        if (sortIndex == null) {
+            sortIndex = new StudentSortIndex(() -> students.values());
+        }
+        return sortIndex;
+    }
+
+    private void reindex(Student previous, Student current) {
+        if (index != null) {
+            if (previous != null) {
+                index.remove(previous);
+            }
+            if (current != null) {
+                index.add(current);
+            }
+        }
+        if (sortIndex != null) {
+            if (previous != null) {
+                sortIndex.remove(previous);
+            }
+            if (current != null) {
+                sortIndex.add(current);
+            }
+        }
+        if (columns != null) {
+            if (current != null) {
+                columns.add(current);
+            } else if (previous != null) {
+                columns.remove(previous);
+            }
+        }
+    }
+
+    private void logPut(Student student) {
+        log.appendPut(student);
+        if (!inCommand()) {
+            commit();
+        }
+    }
+
+    private void logDelete(String studentId) {
+        log.appendDelete(studentId);
+        if (!inCommand()) {
+            commit();
+        }
+    }
+
+    protected void commit() {
+        if (!options.isWriteBehind()) {
+            try {
+                log.commit();
+            } catch (IOException e) {
+                System.out.println("Error saving student data: " + e.getMessage());
+            }
+        } else if (log.pendingBytes() >= options.getFlushThreshold()) {
+            requestFlush();
+        }
+        // Compact only once the log holds as many records as there are
+        // students, so the snapshot cost stays amortised O(1) per write
+        if (log.size() >= options.getCompactionThreshold() && log.getRecordCount() >= students.size()) {
+            compact();
+        }
+    }
+
+    private void openLog() {
+        try {
+            log = new StudentLog(logFile, options.getSyncMode());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open student log " + logFile, e);
         }
     }
 
-    @SuppressWarnings("unchecked")
     private void loadStudents() {
-        File file = new File(FILE_NAME);
+        File file = dataFile.toFile();
         if (file.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                students = (Map<String, Student>) ois.readObject();
+            try {
+                if (!StudentCodec.isSnapshot(dataFile)) {
+                    students = loadLegacy(file);
+                } else if (options.isLazyLoad()) {
+                    students = LazyStudentMap.open(dataFile);
+                } else {
+                    students = StudentCodec.read(dataFile);
+                }
             } catch (IOException | ClassNotFoundException e) {
                 System.out.println("Error loading student data: " + e.getMessage());
                 students = new HashMap<>();
             }
         }
+        try {
+            // A log left over from an interrupted compaction comes first
+            boolean interrupted = Files.exists(oldLogFile);
+            StudentLog.replay(oldLogFile, students);
+            StudentLog.replay(logFile, students);
+            if (interrupted) {
+                saveStudents(snapshot());
+                Files.delete(oldLogFile);
+            }
+        } catch (IOException e) {
+            System.out.println("Error loading student data: " + e.getMessage());
+        }
     }
 
-    private void saveStudents() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(FILE_NAME))) {
-            oos.writeObject(students);
-        } catch (IOException e) {
-            System.out.println("Error saving student data: " + e.getMessage());
+    // Point-in-time copy of the students that a background thread may iterate
+    private Iterable<Student> snapshot() {
+        if (students instanceof LazyStudentMap) {
+            return ((LazyStudentMap) students).snapshot();
+        }
+        return new ArrayList<>(students.values());
+    }
+
+    // Files written before the binary snapshot format are Java-serialized maps
+    @SuppressWarnings("unchecked")
+    private static Map<String, Student> loadLegacy(File file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return (Map<String, Student>) ois.readObject();
         }
     }
+
+    private void saveStudents(Iterable<Student> snapshot) throws IOException {
+        Path temp = dataFile.resolveSibling(FILE_NAME + ".tmp");
+        StudentCodec.write(temp, snapshot);
+        Files.move(temp, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
 }
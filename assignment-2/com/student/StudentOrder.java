@@ -0,0 +1,65 @@
+package com.student;
+
+import java.util.Comparator;
+
+/**
+ * Orders in which students can be listed page by page. Ties are broken by
+ * id so every student has a unique position, and a page cursor is the
+ * sort key of the last student on the previous page. Students without a
+ * name sort first by name.
+ */
+public enum StudentOrder {
+    ID(Comparator.comparing(Student::getId)),
+    NAME(Comparator.comparing(Student::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Student::getId)),
+    GPA(Comparator.comparingDouble(Student::getGpa).thenComparing(Student::getId));
+
+    private final Comparator<Student> comparator;
+
+    StudentOrder(Comparator<Student> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<Student> comparator() {
+        return comparator;
+    }
+
+    public String cursorOf(Student student) {
+        switch (this) {
+            case NAME:
+                // A length of -1 stands for a null name
+                return student.getName() == null ? "-1:" + student.getId()
+                        : student.getName().length() + ":" + student.getName() + student.getId();
+            case GPA:
+                return student.getGpa() + ":" + student.getId();
+            default:
+                return student.getId();
+        }
+    }
+
+    // A student carrying only the sort key encoded in the cursor
+    Student probe(String cursor) {
+        try {
+            switch (this) {
+                case NAME: {
+                    int colon = cursor.indexOf(':');
+                    int length = Integer.parseInt(cursor.substring(0, colon));
+                    if (length == -1) {
+                        return new Student(cursor.substring(colon + 1), null, 0, "", 0);
+                    }
+                    int end = colon + 1 + length;
+                    return new Student(cursor.substring(end), cursor.substring(colon + 1, end), 0, "", 0);
+                }
+                case GPA: {
+                    int colon = cursor.indexOf(':');
+                    return new Student(cursor.substring(colon + 1), "", 0, "",
+                            Double.parseDouble(cursor.substring(0, colon)));
+                }
+                default:
+                    return new Student(cursor, "", 0, "", 0);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + name().toLowerCase() + " cursor: " + cursor);
+        }
+    }
+}
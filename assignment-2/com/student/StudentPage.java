@@ -0,0 +1,30 @@
+package com.student;
+
+import java.util.List;
+
+/**
+ * One page of students in a StudentOrder, with the cursor to pass back for
+ * the page after it.
+ */
+public class StudentPage {
+    private final List<Student> students;
+    private final String nextCursor;
+
+    StudentPage(List<Student> students, String nextCursor) {
+        this.students = students;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    // Null on the last page
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
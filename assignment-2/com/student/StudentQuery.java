@@ -0,0 +1,91 @@
+package com.student;
+
+/**
+ * Filter over students, e.g. all CS majors with GPA above 3.5:
+ * {@code new StudentQuery().major("CS").gpaAbove(3.5)}.
+ * Unset criteria match everything. Ranges are inclusive unless noted.
+ */
+public class StudentQuery {
+    private String major;
+    private double minGpa = Double.NEGATIVE_INFINITY;
+    private boolean minGpaInclusive = true;
+    private double maxGpa = Double.POSITIVE_INFINITY;
+    private int minAge = Integer.MIN_VALUE;
+    private int maxAge = Integer.MAX_VALUE;
+
+    public StudentQuery major(String major) {
+        this.major = major;
+        return this;
+    }
+
+    public StudentQuery gpaAtLeast(double gpa) {
+        this.minGpa = gpa;
+        this.minGpaInclusive = true;
+        return this;
+    }
+
+    // Strictly greater than the given GPA
+    public StudentQuery gpaAbove(double gpa) {
+        this.minGpa = gpa;
+        this.minGpaInclusive = false;
+        return this;
+    }
+
+    public StudentQuery gpaAtMost(double gpa) {
+        this.maxGpa = gpa;
+        return this;
+    }
+
+    public StudentQuery gpaBetween(double min, double max) {
+        return gpaAtLeast(min).gpaAtMost(max);
+    }
+
+    public StudentQuery ageBetween(int min, int max) {
+        this.minAge = min;
+        this.maxAge = max;
+        return this;
+    }
+
+    public String getMajor() {
+        return major;
+    }
+
+    public boolean hasGpaRange() {
+        return minGpa != Double.NEGATIVE_INFINITY || maxGpa != Double.POSITIVE_INFINITY;
+    }
+
+    public double getMinGpa() {
+        return minGpa;
+    }
+
+    public boolean isMinGpaInclusive() {
+        return minGpaInclusive;
+    }
+
+    public double getMaxGpa() {
+        return maxGpa;
+    }
+
+    public boolean hasAgeRange() {
+        return minAge != Integer.MIN_VALUE || maxAge != Integer.MAX_VALUE;
+    }
+
+    public int getMinAge() {
+        return minAge;
+    }
+
+    public int getMaxAge() {
+        return maxAge;
+    }
+
+    public boolean matches(Student student) {
+        if (major != null && !major.equals(student.getMajor())) {
+            return false;
+        }
+        double gpa = student.getGpa();
+        if (gpa < minGpa || (gpa == minGpa && !minGpaInclusive) || gpa > maxGpa) {
+            return false;
+        }
+        return student.getAge() >= minAge && student.getAge() <= maxAge;
+    }
+}
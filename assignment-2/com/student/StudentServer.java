@@ -0,0 +1,293 @@
+package com.student;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP front-end for a {@link ConcurrentStudentManager} on localhost. Students
+ * are exchanged as the JSON objects of {@link StudentFormat#JSONL}.
+ * <pre>
+ *   GET    /students/{id}              one student, or 404
+ *   GET    /students?order=id|name|gpa&amp;cursor=..&amp;limit=50
+ *                                       one page as JSON Lines; the cursor
+ *                                       for the next page is in X-Next-Cursor
+ *   POST   /students                   add the student in the body
+ *   PUT    /students/{id}              add or replace the student in the body
+ *   DELETE /students/{id}              delete, or 404
+ *   POST   /undo                       undo the last command
+ *   POST   /batch                      one command from lines of
+ *                                       "add {json}", "update {json}", "delete id"
+ * </pre>
+ * Every request runs on its own virtual thread when the runtime supports
+ * them, otherwise on a bounded pool of platform threads. Writes are acknowledged after
+ * their log commit; commits that arrive together share one write and fsync.
+ */
+public class StudentServer implements AutoCloseable {
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 10_000;
+    private static final int REQUEST_THREADS = 256;
+
+    static {
+        // Small responses would otherwise wait out the client's delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ConcurrentStudentManager manager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public StudentServer(ConcurrentStudentManager manager, int port) throws IOException {
+        this.manager = manager;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/students", exchange -> respond(exchange, this::handleStudents));
+        server.createContext("/undo", exchange -> respond(exchange, this::handleUndo));
+        server.createContext("/batch", exchange -> respond(exchange, this::handleBatch));
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Closes the exchange once handled, turning bad input into a 400
+    private static void respond(HttpExchange exchange, HttpHandler handler) throws IOException {
+        try {
+            handler.handle(exchange);
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, "Invalid request: " + e.getMessage() + "\n");
+        } catch (RuntimeException e) {
+            send(exchange, 500, "Error handling request: " + e.getMessage() + "\n");
+        } finally {
+            // HttpExchange is only AutoCloseable from Java 14
+            exchange.close();
+        }
+    }
+
+    private void handleStudents(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getRawPath();
+        String id = path.length() > "/students/".length()
+                ? URLDecoder.decode(path.substring("/students/".length()), StandardCharsets.UTF_8) : null;
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                if (id == null) {
+                    listStudents(exchange);
+                } else {
+                    Student student = manager.getStudent(id);
+                    if (student == null) {
+                        send(exchange, 404, "Student not found: " + id + "\n");
+                    } else {
+                        send(exchange, 200, json(student));
+                    }
+                }
+                break;
+            case "POST":
+                if (id != null) {
+                    send(exchange, 405, "Use PUT /students/{id} to replace a student\n");
+                    break;
+                }
+                Student added = StudentFormat.JSONL.parse(readBody(exchange).trim());
+                manager.executeCommand(new AddStudentCommand(manager, added));
+                send(exchange, 201, json(added));
+                break;
+            case "PUT":
+                Student updated = StudentFormat.JSONL.parse(readBody(exchange).trim());
+                if (id == null || !id.equals(updated.getId())) {
+                    send(exchange, 400, "Body id does not match the path\n");
+                    break;
+                }
+                manager.executeCommand(new UpdateStudentCommand(manager, updated));
+                send(exchange, 200, json(updated));
+                break;
+            case "DELETE":
+                if (id == null || manager.getStudent(id) == null) {
+                    send(exchange, 404, "Student not found: " + id + "\n");
+                    break;
+                }
+                manager.executeCommand(new DeleteStudentCommand(manager, id));
+                send(exchange, 204, null);
+                break;
+            default:
+                send(exchange, 405, "Unsupported method\n");
+        }
+    }
+
+    private void listStudents(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        StudentOrder order = StudentOrder.valueOf(params.getOrDefault("order", "id").toUpperCase());
+        int limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_LIMIT)));
+        StudentPage page = manager.page(order, params.get("cursor"), Math.min(limit, MAX_LIMIT));
+        StringBuilder out = new StringBuilder(page.getStudents().size() * 96);
+        for (Student student : page.getStudents()) {
+            StudentFormat.JSONL.format(student, out);
+        }
+        if (page.hasMore()) {
+            exchange.getResponseHeaders().set("X-Next-Cursor",
+                    URLEncoder.encode(page.getNextCursor(), StandardCharsets.UTF_8));
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        send(exchange, 200, out.toString());
+    }
+
+    private void handleUndo(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            send(exchange, 405, "Use POST /undo\n");
+            return;
+        }
+        manager.undoLastCommand();
+        send(exchange, 204, null);
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            send(exchange, 405, "Use POST /batch\n");
+            return;
+        }
+        BatchCommand batch = new BatchCommand(manager);
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int space = line.indexOf(' ');
+                String op = space < 0 ? line : line.substring(0, space);
+                String argument = space < 0 ? "" : line.substring(space + 1).trim();
+                switch (op) {
+                    case "add":
+                        batch.add(StudentFormat.JSONL.parse(argument));
+                        break;
+                    case "update":
+                        batch.update(StudentFormat.JSONL.parse(argument));
+                        break;
+                    case "delete":
+                        batch.delete(argument);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown batch operation '" + op + "'");
+                }
+            }
+        }
+        manager.executeCommand(batch);
+        send(exchange, 200, "Applied " + batch.size() + " operations\n");
+    }
+
+    private static String json(Student student) {
+        StringBuilder out = new StringBuilder(96);
+        StudentFormat.JSONL.format(student, out);
+        return out.toString();
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        // The connection is only reused if the request was read to the end
+        // before the response finishes, which for an empty one is right away
+        exchange.getRequestBody().close();
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type",
+                    status < 300 ? "application/json" : "text/plain; charset=utf-8");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        manager.close();
+    }
+
+    // Requests spend most of their time waiting for a group commit, so the
+    // pool is far larger than the core count to let commits batch up; the
+    // bound keeps a burst of connections from starting a thread each. Java 21
+    // runs every request on a virtual thread instead.
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threads = new AtomicInteger();
+            return Executors.newFixedThreadPool(REQUEST_THREADS, r -> {
+                Thread thread = new Thread(r, "student-http-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        StoreOptions options = new StoreOptions().syncMode(SyncMode.COMMIT);
+        if (args.length > 1) {
+            options.directory(Files.createDirectories(Paths.get(args[1])));
+        }
+        StudentServer server = new StudentServer(new ConcurrentStudentManager(options), port);
+        server.start();
+        System.out.println("Student server listening on localhost:" + server.getPort());
+        // Commands report every change on stdout; stop that from flushing per request
+        System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            System.out.flush();
+        }));
+    }
+}
@@ -0,0 +1,102 @@
+package com.student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Students kept sorted in each StudentOrder, so a page can be read from any
+ * cursor in O(log n + page size) without sorting the whole store. An order
+ * is only sorted the first time it is listed.
+ *
+ * Updates and page reads go straight to the concurrent skip lists without
+ * a lock of their own; callers serialise changes to the same student, and a
+ * page shows each student either before or after a concurrent change. Only
+ * sorting an order takes the index's monitor. An order sorted while other
+ * threads change students may miss those changes, so a shared manager sorts
+ * every order up front with {@link #buildAll()}.
+ */
+public class StudentSortIndex {
+    private final Supplier<Collection<Student>> source;
+    private static final StudentOrder[] ORDERS = StudentOrder.values();
+
+    // Indexed by StudentOrder ordinal; an entry is set once its order is sorted
+    private final AtomicReferenceArray<NavigableSet<Student>> sorted = new AtomicReferenceArray<>(ORDERS.length);
+
+    // Source supplies the current students when an order is first sorted;
+    // it is asked each time, since the owner may replace its map
+    public StudentSortIndex(Supplier<Collection<Student>> source) {
+        this.source = source;
+    }
+
+    public void add(Student student) {
+        for (int i = 0; i < ORDERS.length; i++) {
+            NavigableSet<Student> set = sorted.get(i);
+            if (set != null) {
+                set.add(student);
+            }
+        }
+    }
+
+    public void remove(Student student) {
+        for (int i = 0; i < ORDERS.length; i++) {
+            NavigableSet<Student> set = sorted.get(i);
+            if (set != null) {
+                set.remove(student);
+            }
+        }
+    }
+
+    // Students after the cursor, or from the start when the cursor is null
+    public StudentPage page(StudentOrder order, String cursor, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        NavigableSet<Student> set = sorted(order);
+        Iterator<Student> it = (cursor == null ? set : set.tailSet(order.probe(cursor), false)).iterator();
+        List<Student> students = new ArrayList<>(Math.min(pageSize, 1024));
+        while (students.size() < pageSize && it.hasNext()) {
+            students.add(it.next());
+        }
+        String next = it.hasNext() && !students.isEmpty()
+                ? order.cursorOf(students.get(students.size() - 1)) : null;
+        return new StudentPage(students, next);
+    }
+
+    // Sorts every order that is not sorted yet, all of them at once
+    public synchronized void buildAll() {
+        Student[] students = source.get().toArray(new Student[0]);
+        Arrays.stream(ORDERS).parallel()
+                .filter(order -> sorted.get(order.ordinal()) == null)
+                .forEach(order -> sorted.set(order.ordinal(), build(order, students.clone())));
+    }
+
+    private NavigableSet<Student> sorted(StudentOrder order) {
+        NavigableSet<Student> set = sorted.get(order.ordinal());
+        if (set != null) {
+            return set;
+        }
+        synchronized (this) {
+            set = sorted.get(order.ordinal());
+            if (set == null) {
+                set = build(order, source.get().toArray(new Student[0]));
+                sorted.set(order.ordinal(), set);
+            }
+            return set;
+        }
+    }
+
+    private static NavigableSet<Student> build(StudentOrder order, Student[] students) {
+        // Appending in order is much cheaper than inserting at random
+        Arrays.parallelSort(students, order.comparator());
+        NavigableSet<Student> set = new ConcurrentSkipListSet<>(order.comparator());
+        set.addAll(Arrays.asList(students));
+        return set;
+    }
+}
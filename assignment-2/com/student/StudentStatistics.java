@@ -0,0 +1,53 @@
+package com.student;
+
+/**
+ * Count, GPA summary and average age of a group of students, with GPA
+ * percentiles taken from the group's sorted GPAs.
+ */
+public class StudentStatistics {
+    private final double[] sortedGpas;
+    private final double gpaSum;
+    private final long ageSum;
+
+    StudentStatistics(double[] sortedGpas, double gpaSum, long ageSum) {
+        this.sortedGpas = sortedGpas;
+        this.gpaSum = gpaSum;
+        this.ageSum = ageSum;
+    }
+
+    public int getCount() {
+        return sortedGpas.length;
+    }
+
+    public double getAverageGpa() {
+        return sortedGpas.length == 0 ? 0 : gpaSum / sortedGpas.length;
+    }
+
+    public double getMinGpa() {
+        return sortedGpas.length == 0 ? 0 : sortedGpas[0];
+    }
+
+    public double getMaxGpa() {
+        return sortedGpas.length == 0 ? 0 : sortedGpas[sortedGpas.length - 1];
+    }
+
+    public double getAverageAge() {
+        return sortedGpas.length == 0 ? 0 : (double) ageSum / sortedGpas.length;
+    }
+
+    // Nearest-rank percentile, for percent between 0 and 100
+    public double gpaPercentile(double percent) {
+        if (sortedGpas.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100 * sortedGpas.length);
+        return sortedGpas[Math.min(sortedGpas.length - 1, Math.max(0, rank - 1))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Count: %d, Avg GPA: %.2f, Min: %.2f, Median: %.2f, P90: %.2f, Max: %.2f, Avg age: %.1f",
+                getCount(), getAverageGpa(), getMinGpa(), gpaPercentile(50), gpaPercentile(90), getMaxGpa(),
+                getAverageAge());
+    }
+}
@@ -0,0 +1,8 @@
+package com.student;
+
+public enum SyncMode {
+    // Leave flushing to the operating system
+    NONE,
+    // fsync the log once per group commit
+    COMMIT
+}
@@ -0,0 +1,319 @@
+package com.student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Undo stack with a bounded number of commands kept in memory.
+ *
+ * When the in-memory part is full the oldest command is spilled to a ring
+ * file as field-level deltas: for each student it touched, only the fields
+ * that differ from the record it left behind. Undoing past the in-memory
+ * part pages entries back from the file, newest first, and applies the
+ * deltas to the current records. When the ring file is full its oldest
+ * entries are overwritten, which is where the history ends. A command that
+ * cannot describe its changes ends the history when it is spilled.
+ *
+ * pop() hands back the undo action rather than the command, since an entry
+ * paged back from the file can only be undone, not executed again.
+ *
+ * Ring file entries are [int length][payload][int length] so the file can
+ * be walked backwards from the newest entry. Positions are only kept in
+ * memory: like the in-memory history, the file does not outlive the process.
+ */
+public class UndoHistory {
+    private static final int NAME = 1;
+    private static final int AGE = 2;
+    private static final int MAJOR = 4;
+    private static final int GPA = 8;
+    private static final int ALL_FIELDS = NAME | AGE | MAJOR | GPA;
+    private static final int REMOVE = 16;
+    // Set with NAME or MAJOR when the previous value was null
+    private static final int NULL_NAME = 32;
+    private static final int NULL_MAJOR = 64;
+
+    private final StudentManager manager;
+    private final Path file;
+    private final int memoryLimit;
+    private final long diskLimit;
+    private final Deque<Command> memory = new ArrayDeque<>();
+
+    private FileChannel channel;
+    private long head;
+    private long tail;
+    private long wrapEnd = -1;
+    private int spilled;
+
+    public UndoHistory(StudentManager manager, Path file, int memoryLimit, long diskLimit) {
+        this.manager = manager;
+        this.file = file;
+        this.memoryLimit = Math.max(1, memoryLimit);
+        this.diskLimit = diskLimit;
+    }
+
+    public synchronized void push(Command command) {
+        memory.addLast(command);
+        if (memory.size() > memoryLimit) {
+            spill(memory.removeFirst());
+        }
+    }
+
+    // Undoes the newest command when run, or null if there is none
+    public synchronized Runnable pop() {
+        if (!memory.isEmpty()) {
+            return memory.removeLast()::undo;
+        }
+        if (spilled == 0) {
+            return null;
+        }
+        try {
+            return decode(readNewest());
+        } catch (IOException e) {
+            System.out.println("Error loading undo history: " + e.getMessage());
+            clearSpilled();
+            return null;
+        }
+    }
+
+    public synchronized int size() {
+        return memory.size() + spilled;
+    }
+
+    public synchronized void close() {
+        clearSpilled();
+        memory.clear();
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.out.println("Error saving undo history: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    private void spill(Command command) {
+        List<StudentChange> changes = command.getChanges();
+        if (changes == null || diskLimit <= 0) {
+            // Nothing older than this command can be undone any more
+            clearSpilled();
+            return;
+        }
+        try {
+            append(encode(changes));
+        } catch (IOException e) {
+            System.out.println("Error saving undo history: " + e.getMessage());
+            clearSpilled();
+        }
+    }
+
+    private ByteBuffer encode(List<StudentChange> changes) {
+        int size = 5;
+        for (StudentChange change : changes) {
+            Student before = change.getBefore();
+            size += 1 + (before != null ? StudentCodec.maxEncodedSize(before) : 3 + change.getStudentId().length() * 3);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        StudentCodec.putVarInt(buffer, changes.size());
+        for (StudentChange change : changes) {
+            Student before = change.getBefore();
+            Student after = change.getAfter();
+            StudentCodec.putString(buffer, change.getStudentId());
+            int fields = before == null ? REMOVE : after == null ? ALL_FIELDS : changedFields(before, after);
+            if ((fields & NAME) != 0 && before.getName() == null) {
+                fields |= NULL_NAME;
+            }
+            if ((fields & MAJOR) != 0 && before.getMajor() == null) {
+                fields |= NULL_MAJOR;
+            }
+            buffer.put((byte) fields);
+            if ((fields & (NAME | NULL_NAME)) == NAME) {
+                StudentCodec.putString(buffer, before.getName());
+            }
+            if ((fields & AGE) != 0) {
+                StudentCodec.putVarInt(buffer, before.getAge());
+            }
+            if ((fields & (MAJOR | NULL_MAJOR)) == MAJOR) {
+                StudentCodec.putString(buffer, before.getMajor());
+            }
+            if ((fields & GPA) != 0) {
+                buffer.putDouble(before.getGpa());
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int changedFields(Student before, Student after) {
+        int fields = 0;
+        if (!Objects.equals(before.getName(), after.getName())) {
+            fields |= NAME;
+        }
+        if (before.getAge() != after.getAge()) {
+            fields |= AGE;
+        }
+        if (!Objects.equals(before.getMajor(), after.getMajor())) {
+            fields |= MAJOR;
+        }
+        if (Double.compare(before.getGpa(), after.getGpa()) != 0) {
+            fields |= GPA;
+        }
+        return fields;
+    }
+
+    private Runnable decode(ByteBuffer buffer) throws IOException {
+        int count = StudentCodec.getVarInt(buffer);
+        List<String> ids = new ArrayList<>(count);
+        List<Student> restored = new ArrayList<>(count);
+        List<Integer> masks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(StudentCodec.getString(buffer));
+            int fields = buffer.get();
+            String name = (fields & (NAME | NULL_NAME)) == NAME ? StudentCodec.getString(buffer) : null;
+            int age = (fields & AGE) != 0 ? StudentCodec.getVarInt(buffer) : 0;
+            String major = (fields & (MAJOR | NULL_MAJOR)) == MAJOR ? StudentCodec.getString(buffer) : null;
+            double gpa = (fields & GPA) != 0 ? buffer.getDouble() : 0;
+            restored.add(new Student(ids.get(i), name, age, major, gpa));
+            masks.add(fields);
+        }
+        return new SpilledUndo(ids, restored, masks);
+    }
+
+    private void append(ByteBuffer payload) throws IOException {
+        long size = payload.remaining() + 8L;
+        if (size > diskLimit) {
+            clearSpilled();
+            return;
+        }
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        while (true) {
+            if (wrapEnd < 0) {
+                if (head + size <= diskLimit) {
+                    break;
+                }
+                wrapEnd = head;
+                head = 0;
+            }
+            if (head + size <= tail) {
+                break;
+            }
+            dropOldest();
+        }
+        ByteBuffer length = ByteBuffer.allocate(4).putInt(0, payload.remaining());
+        writeFully(length.duplicate(), head);
+        writeFully(payload, head + 4);
+        writeFully(length, head + size - 4);
+        head += size;
+        spilled++;
+    }
+
+    private void dropOldest() throws IOException {
+        tail += readInt(tail) + 8L;
+        spilled--;
+        if (tail == wrapEnd) {
+            tail = 0;
+            wrapEnd = -1;
+        }
+        if (spilled == 0) {
+            clearSpilled();
+        }
+    }
+
+    private ByteBuffer readNewest() throws IOException {
+        if (wrapEnd >= 0 && head == 0) {
+            head = wrapEnd;
+            wrapEnd = -1;
+        }
+        int length = readInt(head - 4);
+        if (length < 0 || length > head - 8) {
+            throw new IOException("Corrupt undo entry length " + length);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload, head - 4 - length);
+        head -= length + 8L;
+        spilled--;
+        if (spilled == 0) {
+            clearSpilled();
+        }
+        payload.flip();
+        return payload;
+    }
+
+    private void clearSpilled() {
+        head = 0;
+        tail = 0;
+        wrapEnd = -1;
+        spilled = 0;
+    }
+
+    private int readInt(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        readFully(buffer, position);
+        return buffer.getInt(0);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Undo history file is truncated");
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    // Undo of a command paged back from the ring file
+    private final class SpilledUndo implements Runnable {
+        private final List<String> ids;
+        private final List<Student> restored;
+        private final List<Integer> masks;
+
+        SpilledUndo(List<String> ids, List<Student> restored, List<Integer> masks) {
+            this.ids = ids;
+            this.restored = restored;
+            this.masks = masks;
+        }
+
+        @Override
+        public void run() {
+            for (int i = ids.size() - 1; i >= 0; i--) {
+                String id = ids.get(i);
+                int fields = masks.get(i);
+                if ((fields & REMOVE) != 0) {
+                    manager.removeStudent(id);
+                    continue;
+                }
+                Student stored = restored.get(i);
+                Student current = manager.getStudent(id);
+                if (current == null && (fields & ALL_FIELDS) != ALL_FIELDS) {
+                    System.out.println("Undo: Student no longer exists - " + id);
+                    continue;
+                }
+                manager.updateStudent(new Student(id,
+                        (fields & NAME) != 0 ? stored.getName() : current.getName(),
+                        (fields & AGE) != 0 ? stored.getAge() : current.getAge(),
+                        (fields & MAJOR) != 0 ? stored.getMajor() : current.getMajor(),
+                        (fields & GPA) != 0 ? stored.getGpa() : current.getGpa()));
+            }
+            System.out.println("Undo: Earlier operation on " + ids.size() + " student(s) reverted");
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.student;
 
+import java.util.Collections;
+import java.util.List;
+
 public class UpdateStudentCommand implements Command {
     private StudentManager manager;
     private Student oldStudent;
@@ -13,6 +16,8 @@ public class UpdateStudentCommand implements Command {
 
     @Override
     public void execute() {
+        // Re-read in case the record changed since this command was created
+        oldStudent = manager.getStudent(newStudent.getId());
         manager.updateStudent(newStudent);
         System.out.println("Student updated successfully: " + newStudent.getName());
     }
@@ -28,6 +33,16 @@ public class UpdateStudentCommand implements Command {
         }
     }
 
+    @Override
+    public List<String> getStudentIds() {
+        return Collections.singletonList(newStudent.getId());
+    }
+
+    @Override
+    public List<StudentChange> getChanges() {
+        return Collections.singletonList(new StudentChange(newStudent.getId(), oldStudent, newStudent));
+    }
+
     @Override
     public String getDescription() {
         return "Update student: " + newStudent.getName();